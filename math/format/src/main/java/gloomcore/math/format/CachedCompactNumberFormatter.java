@@ -0,0 +1,165 @@
+package gloomcore.math.format;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 位于 {@link CompactNumberFormatter} 之前的固定大小、直接映射的结果缓存。
+ * <p>
+ * 大多数被格式化的数值在相邻 tick 之间保持不变（在线人数、很少变化的余额、取整后的 TPS），
+ * 命中时只需一次哈希与一次数组读取即可返回已有的字符串。
+ * <p>
+ * 缓存以 (数值位模式, 精度, 类型) 为键，每个槽位只保存一个条目，冲突时直接覆盖。
+ * 条目是只含 final 字段的不可变对象，通过普通数组发布：读线程可能看到旧条目或 null，但绝不会看到构造一半的条目，
+ * 因此无需加锁或 volatile。最坏情况下只是多格式化一次。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * CachedCompactNumberFormatter cached = formatter.cached(1024);
+ * String online = cached.format(onlineCount, 0);
+ * }</pre>
+ * 该类是线程安全的。
+ */
+public final class CachedCompactNumberFormatter {
+    private static final int DOUBLE_KEY = 0;
+    private static final int LONG_KEY = 1;
+
+    private final CompactNumberFormatter formatter;
+    private final Entry[] entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param formatter 实际执行格式化的格式化器。
+     * @param capacity  缓存槽位数，会向上取整为 2 的幂。
+     */
+    public CachedCompactNumberFormatter(CompactNumberFormatter formatter, int capacity) {
+        this.formatter = Objects.requireNonNull(formatter, "formatter");
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [1, 2^30].");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * 格式化 double 值，命中缓存时直接返回已有的字符串。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 格式化后的字符串，与 {@link CompactNumberFormatter#format(double, int)} 相同。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public String format(double value, int precision) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final int slot = slot(bits, precision, DOUBLE_KEY);
+        final Entry entry = entries[slot];
+        if (entry != null && entry.bits == bits && entry.precision == precision && entry.kind == DOUBLE_KEY) {
+            hits.increment();
+            return entry.text;
+        }
+        misses.increment();
+        final String text = formatter.format(value, precision);
+        entries[slot] = new Entry(bits, precision, DOUBLE_KEY, text);
+        return text;
+    }
+
+    /**
+     * 格式化 long 值，命中缓存时直接返回已有的字符串。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 格式化后的字符串，与 {@link CompactNumberFormatter#format(long, int)} 相同。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public String format(long value, int precision) {
+        final int slot = slot(value, precision, LONG_KEY);
+        final Entry entry = entries[slot];
+        if (entry != null && entry.bits == value && entry.precision == precision && entry.kind == LONG_KEY) {
+            hits.increment();
+            return entry.text;
+        }
+        misses.increment();
+        final String text = formatter.format(value, precision);
+        entries[slot] = new Entry(value, precision, LONG_KEY, text);
+        return text;
+    }
+
+    private int slot(long bits, int precision, int kind) {
+        long h = bits ^ ((long) (precision << 1 | kind) * 0x9E37_79B9_7F4A_7C15L);
+        h = (h ^ (h >>> 32)) * 0xD6E8_FEB8_6659_FD93L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * @return 底层格式化器。
+     */
+    public CompactNumberFormatter formatter() {
+        return formatter;
+    }
+
+    /**
+     * @return 缓存槽位数。
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * @return 自创建或上次 {@link #resetStatistics()} 以来的命中次数。
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return 自创建或上次 {@link #resetStatistics()} 以来的未命中次数。
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 命中率；尚无请求时为 0。
+     */
+    public double hitRate() {
+        final long hit = hits.sum();
+        final long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * 清零命中与未命中计数。
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * 清空所有缓存条目。与并发的格式化调用竞争时，部分条目可能在清空后立即被重新写入。
+     */
+    public void clear() {
+        Arrays.fill(entries, null);
+    }
+
+    /**
+     * 不可变的缓存条目，final 字段保证通过普通数组发布时的可见性。
+     */
+    private static final class Entry {
+        private final long bits;
+        private final int precision;
+        private final int kind;
+        private final String text;
+
+        private Entry(long bits, int precision, int kind, String text) {
+            this.bits = bits;
+            this.precision = precision;
+            this.kind = kind;
+            this.text = text;
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package gloomcore.math.format;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 
+import static gloomcore.math.format.FormatSupport.DIGITS;
+import static gloomcore.math.format.FormatSupport.MAX_PRECISION;
+import static gloomcore.math.format.FormatSupport.POW10_CACHE;
+import static gloomcore.math.format.FormatSupport.digitCount;
+
 /**
  * 一个高性能、线程安全的格式化器，用于将数字转换为紧凑且易于人类阅读的字符串。
  * <p>
@@ -21,27 +33,70 @@ import java.util.TreeMap;
  * CompactNumberFormatter formatter = CompactNumberFormatter.of(config);
  *
  * // 进行格式化
- * System.out.println(formatter.format(1, 2567.0));      // 输出: 2.6K
- * System.out.println(formatter.format(2, 1234567.0));  // 输出: 1.23M
- * System.out.println(formatter.format(0, 987));         // 输出: 987
+ * System.out.println(formatter.format(2567.0, 1));      // 输出: 2.6K
+ * System.out.println(formatter.format(1234567.0, 2));  // 输出: 1.23M
+ * System.out.println(formatter.format(987, 0));         // 输出: 987
+ * }</pre>
+ *
+ * <h2>精确输入</h2>
+ * 以 {@code long}（例如以分为单位的余额）或 {@link BigDecimal} 表示的数值应使用对应的重载，
+ * 它们全程使用整数运算缩放与舍入，不会在超过 2<sup>53</sup> 后丢失精度。
+ * 所有重载在舍入进位到下一个单位时都会自动提升单位，例如 {@code 999_950} 在精度为 1 时输出 {@code "1.0M"}。
+ *
+ * <h2>本地化</h2>
+ * 通过 {@link #of(Map, NumberSymbols)} 或 {@link #withSymbols(NumberSymbols)} 指定小数点与分组分隔符，
+ * 符号在构建时编译为字符与 UTF-8 字节，格式化路径与默认符号时一样不产生分配。
+ * 多语言服务器可以使用 {@link LocalizedCompactNumberFormatter} 为每个区域设置预编译一个实例。
+ * <pre>{@code
+ * CompactNumberFormatter german = formatter.withSymbols(NumberSymbols.of(Locale.GERMANY));
+ * german.format(1234567.0, 2); // 输出: 1,23M
+ * }</pre>
+ *
+ * <h2>无分配输出</h2>
+ * 对于每 tick 都要渲染的计分板、全息图等场景，可以使用 {@code formatTo} 系列方法直接写入调用方持有的
+ * {@link StringBuilder}、{@code char[]} 或 UTF-8 {@link ByteBuffer}，整个过程不产生任何中间对象。
+ * <pre>{@code
+ * char[] line = new char[64];
+ * int length = formatter.formatTo(2567.0, 1, line, 0); // line[0, length) 为 "2.6K"
  * }</pre>
  *
  */
 public class CompactNumberFormatter {
-    private static final long[] POW10_CACHE = new long[18];
-    private static final char[] DIGITS = "0123456789".toCharArray();
-
-    static {
-        long value = 1;
-        for (int i = 0; i < POW10_CACHE.length; i++) {
-            POW10_CACHE[i] = value;
-            value *= 10;
-        }
-    }
-
     private final double[] thresholds;
     private final char[][] units;
+    private final byte[][] utf8Units;
+    private final NumberSymbols symbols;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    /**
+     * 每组的数字个数；不分组时为 {@link Integer#MAX_VALUE}，使写入循环无需额外分支。
+     */
+    private final int groupingInterval;
+    private final byte[] utf8DecimalSeparator;
+    private final byte[] utf8GroupingSeparator;
+    /**
+     * 可精确表示为 long 的整数阈值；不能精确表示时为 0。
+     */
+    private final long[] exactThresholds;
+    /**
+     * 阈值向上取整后的 long 值，用于对 long 输入精确地选择单位。
+     */
+    private final long[] longThresholds;
+    /**
+     * 不超过 {@link Long#MAX_VALUE} 的阈值个数，即 long 输入可能使用的单位个数。
+     */
+    private final int longUnitCount;
+    private final BigDecimal[] decimalThresholds;
+    /**
+     * 下标为 {@code unitIndex + 1}：从该单位进位到下一个单位所需的整数倍数；无法精确表示时为 0。
+     */
+    private final long[] exactCarryRatios;
     private final int maxUnitIndex;
+    private final int maxUnitLength;
+    /**
+     * 整数部分的最大位数：long 的 19 位，加上小于 1 的阈值放大带来的位数。
+     */
+    private final int maxIntegerDigits;
     private final ThreadLocal<StringBuilder> buffer;
 
     /**
@@ -49,11 +104,53 @@ public class CompactNumberFormatter {
      *
      * @param thresholds 有序的阈值数组。
      * @param units      对应的单位二维字符数组。
+     * @param symbols    小数点与分组符号。
      */
-    private CompactNumberFormatter(double[] thresholds, char[][] units) {
+    private CompactNumberFormatter(double[] thresholds, char[][] units, NumberSymbols symbols) {
         this.thresholds = thresholds;
         this.units = units;
+        this.utf8Units = new byte[units.length][];
+        for (int i = 0; i < units.length; i++) {
+            this.utf8Units[i] = new String(units[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        this.symbols = symbols;
+        this.decimalSeparator = symbols.decimalSeparator();
+        this.groupingSeparator = symbols.groupingSeparator();
+        this.groupingInterval = symbols.grouping() ? symbols.groupingSize() : Integer.MAX_VALUE;
+        this.utf8DecimalSeparator = String.valueOf(decimalSeparator).getBytes(StandardCharsets.UTF_8);
+        this.utf8GroupingSeparator = String.valueOf(groupingSeparator).getBytes(StandardCharsets.UTF_8);
         this.maxUnitIndex = thresholds.length - 1;
+        int maxUnitLength = 0;
+        for (char[] unit : units) {
+            maxUnitLength = Math.max(maxUnitLength, unit.length);
+        }
+        this.maxUnitLength = maxUnitLength;
+        this.maxIntegerDigits = 19 + (thresholds.length > 0 && thresholds[0] < 1 ? (int) Math.ceil(-Math.log10(thresholds[0])) : 0);
+        final int size = thresholds.length;
+        this.exactThresholds = new long[size];
+        this.longThresholds = new long[size];
+        this.decimalThresholds = new BigDecimal[size];
+        int longUnits = 0;
+        for (int i = 0; i < size; i++) {
+            final double threshold = thresholds[i];
+            decimalThresholds[i] = new BigDecimal(threshold);
+            if (threshold < 0x1p63) {
+                longThresholds[i] = (long) Math.ceil(threshold);
+                longUnits++;
+                if (threshold == Math.rint(threshold)) {
+                    exactThresholds[i] = (long) threshold;
+                }
+            }
+        }
+        this.longUnitCount = longUnits;
+        this.exactCarryRatios = new long[size + 1];
+        for (int unit = -1; unit < maxUnitIndex; unit++) {
+            final long current = unit == -1 ? 1 : exactThresholds[unit];
+            final long next = exactThresholds[unit + 1];
+            if (current > 0 && next > 0 && next % current == 0) {
+                exactCarryRatios[unit + 1] = next / current;
+            }
+        }
         this.buffer = ThreadLocal.withInitial(() -> new StringBuilder(32));
     }
 
@@ -64,8 +161,20 @@ public class CompactNumberFormatter {
      * @return 一个新的 NumberQuantizeFinal 实例。
      */
     public static CompactNumberFormatter of(Map<Double, String> configuration) {
+        return of(configuration, NumberSymbols.DEFAULT);
+    }
+
+    /**
+     * 通过Map和本地化符号创建格式化器实例的静态工厂方法。
+     *
+     * @param configuration 一个Map，其键(Key)是阈值(double)，值(Value)是单位(String)。
+     * @param symbols       小数点与分组符号。
+     * @return 一个新的格式化器实例。
+     */
+    public static CompactNumberFormatter of(Map<Double, String> configuration, NumberSymbols symbols) {
+        Objects.requireNonNull(symbols, "symbols");
         if (configuration == null || configuration.isEmpty()) {
-            return new CompactNumberFormatter(new double[0], new char[0][]);
+            return new CompactNumberFormatter(new double[0], new char[0][], symbols);
         }
 
         TreeMap<Double, String> sortedMap = new TreeMap<>();
@@ -85,11 +194,43 @@ public class CompactNumberFormatter {
             index++;
         }
 
-        return new CompactNumberFormatter(thresholds, units);
+        return new CompactNumberFormatter(thresholds, units, symbols);
+    }
+
+    /**
+     * 创建一个单位表相同、但使用不同符号的格式化器。
+     *
+     * @param symbols 小数点与分组符号。
+     * @return 新的格式化器实例；符号相同时返回自身。
+     */
+    public CompactNumberFormatter withSymbols(NumberSymbols symbols) {
+        if (this.symbols.equals(Objects.requireNonNull(symbols, "symbols"))) {
+            return this;
+        }
+        return new CompactNumberFormatter(thresholds, units, symbols);
+    }
+
+    /**
+     * 在该格式化器之前添加一个直接映射的结果缓存，适合每 tick 重复格式化相同数值的场景。
+     *
+     * @param capacity 缓存槽位数，会向上取整为 2 的幂。
+     * @return 新的缓存格式化器。
+     */
+    public CachedCompactNumberFormatter cached(int capacity) {
+        return new CachedCompactNumberFormatter(this, capacity);
+    }
+
+    /**
+     * @return 该格式化器使用的符号。
+     */
+    public NumberSymbols symbols() {
+        return symbols;
     }
 
     /**
      * 将给定的 double 值格式化为紧凑的字符串表示形式。
+     * <p>
+     * 负数按其绝对值选择单位，并在结果前添加 {@code '-'}。
      *
      * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
      * @param value     要进行格式化的数值。
@@ -97,33 +238,417 @@ public class CompactNumberFormatter {
      * @throws IllegalArgumentException 如果精度值超出允许的范围。
      */
     public String format(double value, int precision) {
-        if (precision < 0 || precision >= POW10_CACHE.length) {
-            throw new IllegalArgumentException("精度必须在 0 到 " + (POW10_CACHE.length - 1) + " 之间。");
+        final StringBuilder buf = buffer.get();
+        buf.setLength(0);
+        formatTo(value, precision, buf);
+        return buf.toString();
+    }
+
+    /**
+     * 将给定的 double 值格式化后追加到 {@link StringBuilder} 末尾，不产生任何中间对象。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标 StringBuilder。
+     * @return 写入的字符数。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public int formatTo(double value, int precision, StringBuilder out) {
+        checkPrecision(precision);
+        final double magnitude = Math.abs(value);
+        final int unitIndex = resolveUnit(magnitude, precision);
+        final long fixed = toFixed(magnitude, unitIndex, POW10_CACHE[precision]);
+        return write(out, value < 0 && fixed != 0, fixed, precision, unitIndex);
+    }
+
+    /**
+     * 将给定的 double 值格式化后写入 {@code char[]} 的指定位置，不产生任何中间对象。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标字符数组。
+     * @param offset    起始写入位置。
+     * @return 写入的字符数。
+     * @throws IllegalArgumentException  如果精度值超出允许的范围。
+     * @throws IndexOutOfBoundsException 如果数组剩余空间不足。
+     */
+    public int formatTo(double value, int precision, char[] out, int offset) {
+        checkPrecision(precision);
+        final double magnitude = Math.abs(value);
+        final int unitIndex = resolveUnit(magnitude, precision);
+        final long fixed = toFixed(magnitude, unitIndex, POW10_CACHE[precision]);
+        return write(out, offset, value < 0 && fixed != 0, fixed, precision, unitIndex);
+    }
+
+    /**
+     * 将给定的 double 值以 UTF-8 编码写入 {@link ByteBuffer} 的当前位置，并推进其 position。
+     * 适合直接构建数据包等场景，跳过中间的 String。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标缓冲区。
+     * @return 写入的字节数。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     * @throws BufferOverflowException  如果缓冲区剩余空间不足，此时缓冲区不会被修改。
+     */
+    public int formatTo(double value, int precision, ByteBuffer out) {
+        checkPrecision(precision);
+        final double magnitude = Math.abs(value);
+        final int unitIndex = resolveUnit(magnitude, precision);
+        final long fixed = toFixed(magnitude, unitIndex, POW10_CACHE[precision]);
+        return write(out, value < 0 && fixed != 0, fixed, precision, unitIndex);
+    }
+
+    /**
+     * 将给定的 long 值格式化为紧凑的字符串表示形式。缩放与舍入全程使用整数运算，结果精确。
+     *
+     * @param value     要进行格式化的数值，例如以分为单位的余额。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 格式化后的字符串。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public String format(long value, int precision) {
+        final StringBuilder buf = buffer.get();
+        buf.setLength(0);
+        formatTo(value, precision, buf);
+        return buf.toString();
+    }
+
+    /**
+     * 将给定的 long 值格式化后追加到 {@link StringBuilder} 末尾。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标 StringBuilder。
+     * @return 写入的字符数。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public int formatTo(long value, int precision, StringBuilder out) {
+        checkPrecision(precision);
+        final long magnitude = Math.abs(value);
+        final int unitIndex = resolveUnit(magnitude, precision);
+        final long fixed = toFixed(magnitude, unitIndex, precision);
+        if (fixed < 0) {
+            return writeDecimal(out, BigDecimal.valueOf(value), precision);
+        }
+        return write(out, value < 0 && fixed != 0, fixed, precision, unitIndex);
+    }
+
+    /**
+     * 将给定的 long 值格式化后写入 {@code char[]} 的指定位置。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标字符数组。
+     * @param offset    起始写入位置。
+     * @return 写入的字符数。
+     * @throws IllegalArgumentException  如果精度值超出允许的范围。
+     * @throws IndexOutOfBoundsException 如果数组剩余空间不足。
+     */
+    public int formatTo(long value, int precision, char[] out, int offset) {
+        checkPrecision(precision);
+        final long magnitude = Math.abs(value);
+        final int unitIndex = resolveUnit(magnitude, precision);
+        final long fixed = toFixed(magnitude, unitIndex, precision);
+        if (fixed < 0) {
+            final StringBuilder slow = new StringBuilder(48);
+            final int length = writeDecimal(slow, BigDecimal.valueOf(value), precision);
+            Objects.checkFromIndexSize(offset, length, out.length);
+            slow.getChars(0, length, out, offset);
+            return length;
         }
+        return write(out, offset, value < 0 && fixed != 0, fixed, precision, unitIndex);
+    }
 
+    /**
+     * 批量格式化一组 double 值，依次写入同一个字符数组，适合排行榜、全息图等一次渲染多行的场景。
+     * <p>
+     * 第 i 个结果位于 {@code out[offsets[i], offsets[i + 1])}。精度只校验一次，整个过程不产生任何对象；
+     * 调用方可以用 {@link #capacity(int, int)} 预先分配足够大的数组并重复使用。
+     *
+     * @param values    要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标字符数组。
+     * @param offsets   接收每个结果起始位置的数组，长度至少为 {@code values.length + 1}。
+     * @return 写入的总字符数。
+     * @throws IllegalArgumentException  如果精度值超出允许的范围。
+     * @throws IndexOutOfBoundsException 如果字符数组或偏移数组的空间不足。
+     */
+    public int formatAll(double[] values, int precision, char[] out, int[] offsets) {
+        checkPrecision(precision);
+        Objects.checkIndex(values.length, offsets.length);
         final long scale = POW10_CACHE[precision];
+        int pos = 0;
+        for (int i = 0; i < values.length; i++) {
+            offsets[i] = pos;
+            final double value = values[i];
+            final double magnitude = Math.abs(value);
+            final int unitIndex = resolveUnit(magnitude, precision);
+            final long fixed = toFixed(magnitude, unitIndex, scale);
+            pos += write(out, pos, value < 0 && fixed != 0, fixed, precision, unitIndex);
+        }
+        offsets[values.length] = pos;
+        return pos;
+    }
+
+    /**
+     * 批量格式化一组 long 值，依次写入同一个字符数组。缩放与舍入全程使用整数运算。
+     * <p>
+     * 第 i 个结果位于 {@code out[offsets[i], offsets[i + 1])}。
+     *
+     * @param values    要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标字符数组。
+     * @param offsets   接收每个结果起始位置的数组，长度至少为 {@code values.length + 1}。
+     * @return 写入的总字符数。
+     * @throws IllegalArgumentException  如果精度值超出允许的范围。
+     * @throws IndexOutOfBoundsException 如果字符数组或偏移数组的空间不足。
+     */
+    public int formatAll(long[] values, int precision, char[] out, int[] offsets) {
+        checkPrecision(precision);
+        Objects.checkIndex(values.length, offsets.length);
+        int pos = 0;
+        for (int i = 0; i < values.length; i++) {
+            offsets[i] = pos;
+            final long value = values[i];
+            final long magnitude = Math.abs(value);
+            final int unitIndex = resolveUnit(magnitude, precision);
+            final long fixed = toFixed(magnitude, unitIndex, precision);
+            pos += fixed < 0
+                    ? formatTo(value, precision, out, pos)
+                    : write(out, pos, value < 0 && fixed != 0, fixed, precision, unitIndex);
+        }
+        offsets[values.length] = pos;
+        return pos;
+    }
+
+    /**
+     * 计算单个结果可能的最大字符数，覆盖 double 与 long 的所有输入。
+     *
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 单个结果的最大字符数。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public int maxLength(int precision) {
+        checkPrecision(precision);
+        // 符号 + 整数部分及其分组分隔符 + 小数点与小数部分 + 最长单位。
+        final int groupingSeparators = (maxIntegerDigits - 1) / groupingInterval;
+        return 1 + maxIntegerDigits + groupingSeparators + (precision > 0 ? 1 + precision : 0) + maxUnitLength;
+    }
+
+    /**
+     * 计算批量格式化所需的字符数组容量。
+     *
+     * @param count     数值个数。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 足以容纳 {@code count} 个结果的数组长度。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public int capacity(int count, int precision) {
+        return Math.multiplyExact(count, maxLength(precision));
+    }
+
+    /**
+     * 将给定的 {@link BigDecimal} 格式化为紧凑的字符串表示形式，使用 {@link RoundingMode#HALF_UP} 精确舍入。
+     * 数值可以表示为 long 时走与 {@link #format(long, int)} 相同的整数路径。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 格式化后的字符串。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public String format(BigDecimal value, int precision) {
         final StringBuilder buf = buffer.get();
         buf.setLength(0);
+        formatTo(value, precision, buf);
+        return buf.toString();
+    }
 
-        final int unitIndex = findOptimalUnit(value);
+    /**
+     * 将给定的 {@link BigDecimal} 格式化后追加到 {@link StringBuilder} 末尾。
+     *
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @param out       目标 StringBuilder。
+     * @return 写入的字符数。
+     * @throws IllegalArgumentException 如果精度值超出允许的范围。
+     */
+    public int formatTo(BigDecimal value, int precision, StringBuilder out) {
+        checkPrecision(precision);
+        if (value.scale() <= 0 && value.precision() - value.scale() < 19) {
+            return formatTo(value.longValue(), precision, out);
+        }
+        return writeDecimal(out, value, precision);
+    }
+
+    /**
+     * @return 单位个数，供 {@link CompactNumberParser} 使用。
+     */
+    int unitCount() {
+        return thresholds.length;
+    }
 
-        double scaledValue = value;
-        char[] unitSymbol = null;
+    double threshold(int unitIndex) {
+        return thresholds[unitIndex];
+    }
 
-        if (unitIndex != -1) {
-            scaledValue = value / thresholds[unitIndex];
-            unitSymbol = units[unitIndex];
+    char[] unit(int unitIndex) {
+        return units[unitIndex];
+    }
+
+    long exactThreshold(int unitIndex) {
+        return exactThresholds[unitIndex];
+    }
+
+    BigDecimal decimalThreshold(int unitIndex) {
+        return decimalThresholds[unitIndex];
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("精度必须在 0 到 " + MAX_PRECISION + " 之间。");
         }
+    }
 
-        final long fixed = (long) (scaledValue * scale + 0.5);
+    /**
+     * 将非负数值按单位缩放后，四舍五入为以 long 表示的定点数。
+     */
+    long toFixed(double magnitude, int unitIndex, long scale) {
+        final double scaledValue = unitIndex != -1 ? magnitude / thresholds[unitIndex] : magnitude;
+        return (long) (scaledValue * scale + 0.5);
+    }
 
-        writeFormattedNumber(buf, fixed, scale, precision);
+    /**
+     * 选择 double 值的单位；若舍入后的结果进位到下一个单位的阈值，则提升一级。
+     */
+    int resolveUnit(double magnitude, int precision) {
+        final int unitIndex = findOptimalUnit(magnitude);
+        final long scale = POW10_CACHE[precision];
+        if (unitIndex < maxUnitIndex && reachesNextUnit(toFixed(magnitude, unitIndex, scale), scale, unitIndex)) {
+            return unitIndex + 1;
+        }
+        return unitIndex;
+    }
 
-        if (unitSymbol != null) {
-            buf.append(unitSymbol);
+    /**
+     * 选择 long 值的单位；若舍入后的结果进位到下一个单位的阈值，则提升一级。
+     */
+    int resolveUnit(long magnitude, int precision) {
+        final int unitIndex = findOptimalUnit(magnitude);
+        if (unitIndex < maxUnitIndex) {
+            final long fixed = toFixed(magnitude, unitIndex, precision);
+            if (fixed >= 0 && reachesNextUnit(fixed, POW10_CACHE[precision], unitIndex)) {
+                return unitIndex + 1;
+            }
         }
+        return unitIndex;
+    }
 
-        return buf.toString();
+    /**
+     * 判断一个定点数是否已达到下一个单位：{@code fixed / scale * thresholds[unitIndex] >= thresholds[unitIndex + 1]}。
+     * 两个阈值成整数倍时使用精确的整数比较。
+     */
+    private boolean reachesNextUnit(long fixed, long scale, int unitIndex) {
+        final long ratio = exactCarryRatios[unitIndex + 1];
+        if (ratio > 0) {
+            final long carry = ratio * scale;
+            return Math.multiplyHigh(ratio, scale) == 0 && carry >= 0 && fixed >= carry;
+        }
+        final double current = unitIndex == -1 ? 1.0 : thresholds[unitIndex];
+        return (double) fixed / scale * current >= thresholds[unitIndex + 1];
+    }
+
+    /**
+     * 使用纯整数运算将非负 long 值按单位缩放并四舍五入为定点数。
+     *
+     * @return 定点数；如果发生溢出或阈值不是整数，返回 -1，调用方应退回 {@link BigDecimal} 路径。
+     */
+    long toFixed(long magnitude, int unitIndex, int precision) {
+        if (magnitude < 0) {
+            return -1;
+        }
+        final long scale = POW10_CACHE[precision];
+        if (unitIndex == -1) {
+            return Math.multiplyHigh(magnitude, scale) == 0 && magnitude * scale >= 0 ? magnitude * scale : -1;
+        }
+        final long threshold = exactThresholds[unitIndex];
+        if (threshold == 0) {
+            return -1;
+        }
+        final long quotient = magnitude / threshold;
+        final long remainder = magnitude % threshold;
+        if (remainder > Long.MAX_VALUE / scale) {
+            return -1;
+        }
+        final long scaledRemainder = remainder * scale;
+        long fraction = scaledRemainder / threshold;
+        final long rest = scaledRemainder % threshold;
+        if (rest >= threshold - rest) {
+            fraction++;
+        }
+        if (quotient > (Long.MAX_VALUE - fraction) / scale) {
+            return -1;
+        }
+        return quotient * scale + fraction;
+    }
+
+    /**
+     * 通用的 {@link BigDecimal} 路径：精确缩放、舍入与单位提升。
+     * 结果能放入 long 时复用定点写入逻辑，否则基于 {@link BigDecimal#toPlainString()} 写入。
+     */
+    private int writeDecimal(StringBuilder out, BigDecimal value, int precision) {
+        final BigDecimal magnitude = value.abs();
+        final int unitIndex = resolveUnit(magnitude, precision);
+        final BigDecimal scaled = scale(magnitude, unitIndex, precision);
+        final boolean negative = value.signum() < 0 && scaled.signum() != 0;
+        final BigInteger unscaled = scaled.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            return write(out, negative, unscaled.longValue(), precision, unitIndex);
+        }
+        final int start = out.length();
+        if (negative) {
+            out.append('-');
+        }
+        final String plain = scaled.toPlainString();
+        final int integerDigits = precision > 0 ? plain.length() - precision - 1 : plain.length();
+        for (int i = 0; i < integerDigits; i++) {
+            if (i != 0 && (integerDigits - i) % groupingInterval == 0) {
+                out.append(groupingSeparator);
+            }
+            out.append(plain.charAt(i));
+        }
+        if (precision > 0) {
+            out.append(decimalSeparator).append(plain, integerDigits + 1, plain.length());
+        }
+        if (unitIndex != -1) {
+            out.append(units[unitIndex]);
+        }
+        return out.length() - start;
+    }
+
+    /**
+     * 选择非负 {@link BigDecimal} 的单位；若舍入后的结果进位到下一个单位的阈值，则提升一级。
+     */
+    int resolveUnit(BigDecimal magnitude, int precision) {
+        final int unitIndex = findOptimalUnit(magnitude);
+        if (unitIndex < maxUnitIndex) {
+            final BigDecimal scaled = scale(magnitude, unitIndex, precision);
+            final BigDecimal reached = unitIndex == -1 ? scaled : scaled.multiply(decimalThresholds[unitIndex]);
+            if (reached.compareTo(decimalThresholds[unitIndex + 1]) >= 0) {
+                return unitIndex + 1;
+            }
+        }
+        return unitIndex;
+    }
+
+    /**
+     * 将非负 {@link BigDecimal} 按单位缩放，并以 {@link RoundingMode#HALF_UP} 舍入到指定小数位数。
+     */
+    BigDecimal scale(BigDecimal magnitude, int unitIndex, int precision) {
+        if (unitIndex == -1) {
+            return magnitude.setScale(precision, RoundingMode.HALF_UP);
+        }
+        return magnitude.divide(decimalThresholds[unitIndex], precision, RoundingMode.HALF_UP);
     }
 
     /**
@@ -154,28 +679,201 @@ public class CompactNumberFormatter {
     }
 
     /**
-     * 将一个以 long 形式表示的定点数写入 StringBuilder。
+     * {@link #findOptimalUnit(double)} 的 long 版本，使用向上取整后的阈值进行精确比较。
+     */
+    private int findOptimalUnit(long value) {
+        if (longUnitCount == 0 || value < longThresholds[0]) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = longUnitCount - 1;
+
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (value >= longThresholds[mid]) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * {@link #findOptimalUnit(double)} 的 {@link BigDecimal} 版本。
+     */
+    private int findOptimalUnit(BigDecimal value) {
+        if (maxUnitIndex < 0 || value.compareTo(decimalThresholds[0]) < 0) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = maxUnitIndex;
+
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (value.compareTo(decimalThresholds[mid]) >= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 计算格式化结果的长度（不含单位）。
      *
-     * @param buf       目标 StringBuilder。
+     * @param decimalWidth  小数点的长度（字符数或字节数）。
+     * @param groupingWidth 分组分隔符的长度（字符数或字节数）。
+     */
+    private int numberLength(boolean negative, long num, int precision, int decimalWidth, int groupingWidth) {
+        final int digits = digitCount(num / POW10_CACHE[precision]);
+        final int length = digits + (digits - 1) / groupingInterval * groupingWidth + (negative ? 1 : 0);
+        return precision > 0 ? length + decimalWidth + precision : length;
+    }
+
+    /**
+     * 将一个以 long 形式表示的定点数及其单位从后往前写入字符数组。
+     *
+     * @param out       目标字符数组。
+     * @param offset    起始写入位置。
+     * @param negative  是否写入负号。
      * @param num       经过缩放和四舍五入后的数值 (例如，12.34 表示为 1234)。
-     * @param scale     缩放因子 (10 的 {@code precision} 次幂)。
      * @param precision 小数部分的位数。
+     * @param unitIndex 单位索引；-1 表示无单位。
+     * @return 写入的字符数。
+     */
+    private int write(char[] out, int offset, boolean negative, long num, int precision, int unitIndex) {
+        final char[] unit = unitIndex != -1 ? units[unitIndex] : null;
+        final int numberLength = numberLength(negative, num, precision, 1, 1);
+        final int length = unit != null ? numberLength + unit.length : numberLength;
+        Objects.checkFromIndexSize(offset, length, out.length);
+
+        if (unit != null) {
+            System.arraycopy(unit, 0, out, offset + numberLength, unit.length);
+        }
+        int pos = offset + numberLength;
+        final long scale = POW10_CACHE[precision];
+        long integerPart = num / scale;
+        if (precision > 0) {
+            long decimalPart = num % scale;
+            for (int i = 0; i < precision; i++) {
+                out[--pos] = DIGITS[(int) (decimalPart % 10)];
+                decimalPart /= 10;
+            }
+            out[--pos] = decimalSeparator;
+        }
+        int group = 0;
+        do {
+            if (group == groupingInterval) {
+                out[--pos] = groupingSeparator;
+                group = 0;
+            }
+            out[--pos] = DIGITS[(int) (integerPart % 10)];
+            integerPart /= 10;
+            group++;
+        } while (integerPart != 0);
+        if (negative) {
+            out[--pos] = '-';
+        }
+        return length;
+    }
+
+    /**
+     * 将一个以 long 形式表示的定点数及其单位追加到 StringBuilder。
+     * 先扩展长度，再从后往前逐字符写入，不产生中间对象。
+     */
+    private int write(StringBuilder out, boolean negative, long num, int precision, int unitIndex) {
+        final char[] unit = unitIndex != -1 ? units[unitIndex] : null;
+        final int start = out.length();
+        final int numberLength = numberLength(negative, num, precision, 1, 1);
+        out.setLength(start + numberLength);
+
+        int pos = start + numberLength;
+        final long scale = POW10_CACHE[precision];
+        long integerPart = num / scale;
+        if (precision > 0) {
+            long decimalPart = num % scale;
+            for (int i = 0; i < precision; i++) {
+                out.setCharAt(--pos, DIGITS[(int) (decimalPart % 10)]);
+                decimalPart /= 10;
+            }
+            out.setCharAt(--pos, decimalSeparator);
+        }
+        int group = 0;
+        do {
+            if (group == groupingInterval) {
+                out.setCharAt(--pos, groupingSeparator);
+                group = 0;
+            }
+            out.setCharAt(--pos, DIGITS[(int) (integerPart % 10)]);
+            integerPart /= 10;
+            group++;
+        } while (integerPart != 0);
+        if (negative) {
+            out.setCharAt(--pos, '-');
+        }
+        if (unit != null) {
+            out.append(unit);
+            return numberLength + unit.length;
+        }
+        return numberLength;
+    }
+
+    /**
+     * 将一个以 long 形式表示的定点数及其单位以 UTF-8 编码写入 ByteBuffer。
+     * 数字均为 ASCII 字符，分隔符与单位使用构建时预编码的字节。
      */
-    private void writeFormattedNumber(StringBuilder buf, long num, long scale, int precision) {
-        final long integerPart = num / scale;
-        buf.append(integerPart);
+    private int write(ByteBuffer out, boolean negative, long num, int precision, int unitIndex) {
+        final byte[] unit = unitIndex != -1 ? utf8Units[unitIndex] : null;
+        final int numberLength = numberLength(negative, num, precision,
+                utf8DecimalSeparator.length, utf8GroupingSeparator.length);
+        final int length = unit != null ? numberLength + unit.length : numberLength;
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
 
+        final int start = out.position();
+        int pos = start + numberLength;
+        final long scale = POW10_CACHE[precision];
+        long integerPart = num / scale;
         if (precision > 0) {
-            buf.append('.');
-            final long decimalPart = num % scale;
-
-            char[] decimalChars = new char[precision];
-            long tempDecimal = decimalPart;
-            for (int i = precision - 1; i >= 0; i--) {
-                decimalChars[i] = DIGITS[(int) (tempDecimal % 10)];
-                tempDecimal /= 10;
+            long decimalPart = num % scale;
+            for (int i = 0; i < precision; i++) {
+                out.put(--pos, (byte) DIGITS[(int) (decimalPart % 10)]);
+                decimalPart /= 10;
+            }
+            pos = putBackward(out, pos, utf8DecimalSeparator);
+        }
+        int group = 0;
+        do {
+            if (group == groupingInterval) {
+                pos = putBackward(out, pos, utf8GroupingSeparator);
+                group = 0;
             }
-            buf.append(decimalChars);
+            out.put(--pos, (byte) DIGITS[(int) (integerPart % 10)]);
+            integerPart /= 10;
+            group++;
+        } while (integerPart != 0);
+        if (negative) {
+            out.put(--pos, (byte) '-');
+        }
+        out.position(start + numberLength);
+        if (unit != null) {
+            out.put(unit);
+        }
+        return length;
+    }
+
+    /**
+     * 将字节序列写入 {@code pos} 之前的位置，返回新的写入位置。
+     */
+    private static int putBackward(ByteBuffer out, int pos, byte[] bytes) {
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            out.put(--pos, bytes[i]);
         }
+        return pos;
     }
 }
@@ -0,0 +1,367 @@
+package gloomcore.math.format;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+import static gloomcore.math.format.FormatSupport.POW10_CACHE;
+
+/**
+ * {@link CompactNumberFormatter} 的逆操作：将 {@code "1.5k"}、{@code "2.25M"} 这类紧凑数字解析为数值。
+ * <p>
+ * 解析器与格式化器共享同一张阈值/单位表与 {@link NumberSymbols}，单位后缀存放在一棵不区分大小写的字典树中。
+ * 数字部分接受格式化器的小数点，并忽略整数部分中的分组分隔符。
+ * 数字部分逐字符累加为 long 尾数与小数位数，再用整数运算乘以阈值，因此结果在 long 范围内是精确的。
+ * 常见输入（不超过 18 位有效数字、阈值为整数）的解析过程不产生任何对象；
+ * 其余情况退回 {@link BigDecimal} 计算，结果同样精确。
+ * <p>
+ * 解析失败不会抛出异常，而是返回错误码，并在 {@link Result#end()} 中给出出错位置，
+ * 适合在 Brigadier 参数类型中报告光标位置。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * CompactNumberParser parser = CompactNumberParser.of(formatter);
+ * CompactNumberParser.Result result = new CompactNumberParser.Result();
+ *
+ * if (parser.parse("1.5k", result) == CompactNumberParser.OK) {
+ *     long amount = result.longValue(); // 1500
+ * }
+ * }</pre>
+ * 实例不可变，可以在多线程间共享；{@link Result} 是可复用的可变对象，不应在线程间共享。
+ */
+public final class CompactNumberParser {
+    /**
+     * 解析成功。
+     */
+    public static final int OK = 0;
+    /**
+     * 输入为空。
+     */
+    public static final int EMPTY = 1;
+    /**
+     * 数字部分格式不正确，例如没有任何数字或出现多个小数点。
+     */
+    public static final int INVALID_NUMBER = 2;
+    /**
+     * 数字之后的后缀不是已知单位。
+     */
+    public static final int UNKNOWN_UNIT = 3;
+    /**
+     * 结果的绝对值超出 {@link Long#MAX_VALUE}。
+     */
+    public static final int OVERFLOW = 4;
+
+    private static final int MAX_FAST_DIGITS = 18;
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final CompactNumberFormatter formatter;
+    private final char decimalSeparator;
+    /**
+     * 分组分隔符；不分组时为非字符 {@code U+FFFF}，不会与正常输入匹配。
+     */
+    private final char groupingSeparator;
+    /**
+     * 字典树节点，0 号为根节点。子节点以 firstChild/nextSibling 链表组织。
+     */
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] unitIndices;
+
+    private CompactNumberParser(CompactNumberFormatter formatter) {
+        this.formatter = formatter;
+        this.decimalSeparator = formatter.symbols().decimalSeparator();
+        this.groupingSeparator = formatter.symbols().grouping() ? formatter.symbols().groupingSeparator() : '\uFFFF';
+        int capacity = 1;
+        for (int i = 0; i < formatter.unitCount(); i++) {
+            capacity += formatter.unit(i).length;
+        }
+        this.labels = new char[capacity];
+        this.firstChild = new int[capacity];
+        this.nextSibling = new int[capacity];
+        this.unitIndices = new int[capacity];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        Arrays.fill(unitIndices, -1);
+
+        int nodes = 1;
+        // 按阈值升序插入，大小写折叠后冲突时（如 "m" 与 "M"）较大的单位生效。
+        for (int unitIndex = 0; unitIndex < formatter.unitCount(); unitIndex++) {
+            final char[] unit = formatter.unit(unitIndex);
+            if (unit.length == 0) {
+                continue;
+            }
+            int node = 0;
+            for (char c : unit) {
+                final char label = fold(c);
+                int child = firstChild[node];
+                while (child != -1 && labels[child] != label) {
+                    child = nextSibling[child];
+                }
+                if (child == -1) {
+                    child = nodes++;
+                    labels[child] = label;
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+            unitIndices[node] = unitIndex;
+        }
+    }
+
+    /**
+     * 创建与给定格式化器使用同一张单位表的解析器。
+     *
+     * @param formatter 格式化器。
+     * @return 新的解析器实例。
+     */
+    public static CompactNumberParser of(CompactNumberFormatter formatter) {
+        return new CompactNumberParser(Objects.requireNonNull(formatter, "formatter"));
+    }
+
+    /**
+     * 通过 Map 创建解析器，配置格式与 {@link CompactNumberFormatter#of(Map)} 相同。
+     *
+     * @param configuration 一个Map，其键(Key)是阈值(double)，值(Value)是单位(String)。
+     * @return 新的解析器实例。
+     */
+    public static CompactNumberParser of(Map<Double, String> configuration) {
+        return new CompactNumberParser(CompactNumberFormatter.of(configuration));
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * 解析整个字符序列。
+     *
+     * @param text   输入文本。
+     * @param result 用于接收结果的对象。
+     * @return 错误码，成功时为 {@link #OK}。
+     */
+    public int parse(CharSequence text, Result result) {
+        return parse(text, 0, text.length(), result);
+    }
+
+    /**
+     * 解析字符序列中 {@code [start, end)} 区间的内容，整个区间必须是 “可选符号 + 数字 + 可选单位”。
+     * <p>
+     * 成功时 {@link Result#end()} 等于 {@code end}；失败时为出错字符的位置。
+     *
+     * @param text   输入文本。
+     * @param start  起始位置（包含）。
+     * @param end    结束位置（不包含）。
+     * @param result 用于接收结果的对象。
+     * @return 错误码，成功时为 {@link #OK}。
+     * @throws IndexOutOfBoundsException 如果区间超出文本范围。
+     */
+    public int parse(CharSequence text, int start, int end, Result result) {
+        Objects.checkFromToIndex(start, end, text.length());
+        result.reset();
+        int pos = start;
+        if (pos == end) {
+            return result.fail(EMPTY, pos);
+        }
+
+        boolean negative = false;
+        final char first = text.charAt(pos);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            pos++;
+        }
+
+        final int numberStart = pos;
+        long mantissa = 0;
+        int significant = 0;
+        int fractionDigits = 0;
+        boolean sawDigit = false;
+        boolean sawPoint = false;
+        boolean exceedsFastPath = false;
+        for (; pos < end; pos++) {
+            final char c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (sawPoint) {
+                    fractionDigits++;
+                }
+                if (mantissa == 0 && c == '0') {
+                    continue;
+                }
+                if (significant == MAX_FAST_DIGITS) {
+                    exceedsFastPath = true;
+                } else {
+                    mantissa = mantissa * 10 + (c - '0');
+                    significant++;
+                }
+            } else if (c == decimalSeparator && !sawPoint) {
+                sawPoint = true;
+            } else if (c == groupingSeparator && sawDigit && !sawPoint) {
+                continue;
+            } else {
+                break;
+            }
+        }
+        if (!sawDigit) {
+            return result.fail(INVALID_NUMBER, pos);
+        }
+        final int numberEnd = pos;
+
+        int unitIndex = -1;
+        if (pos < end) {
+            int node = 0;
+            for (; pos < end; pos++) {
+                final char label = fold(text.charAt(pos));
+                int child = firstChild[node];
+                while (child != -1 && labels[child] != label) {
+                    child = nextSibling[child];
+                }
+                if (child == -1) {
+                    return result.fail(pos == numberEnd && label == fold(decimalSeparator) ? INVALID_NUMBER : UNKNOWN_UNIT, pos);
+                }
+                node = child;
+            }
+            unitIndex = unitIndices[node];
+            if (unitIndex == -1) {
+                return result.fail(UNKNOWN_UNIT, numberEnd);
+            }
+        }
+
+        final long threshold = unitIndex == -1 ? 1 : formatter.exactThreshold(unitIndex);
+        if (!exceedsFastPath && fractionDigits <= MAX_FAST_DIGITS && threshold > 0) {
+            final long scale = POW10_CACHE[fractionDigits];
+            if (threshold % scale == 0) {
+                final long factor = threshold / scale;
+                final long value = mantissa * factor;
+                if (Math.multiplyHigh(mantissa, factor) != 0 || value < 0) {
+                    return result.fail(OVERFLOW, start);
+                }
+                return result.succeed(negative, value, value, true, unitIndex, end);
+            }
+            final long quotient = mantissa / scale;
+            final long remainder = mantissa % scale;
+            final long whole = quotient * threshold;
+            if (Math.multiplyHigh(quotient, threshold) != 0 || whole < 0) {
+                return result.fail(OVERFLOW, start);
+            }
+            final long scaledRemainder = remainder * threshold;
+            if (Math.multiplyHigh(remainder, threshold) == 0 && scaledRemainder >= 0) {
+                final long value = whole + scaledRemainder / scale;
+                if (value < 0) {
+                    return result.fail(OVERFLOW, start);
+                }
+                final long fraction = scaledRemainder % scale;
+                return result.succeed(negative, value, value + (double) fraction / scale, fraction == 0, unitIndex, end);
+            }
+        }
+
+        // 慢速路径：超过 18 位有效数字、非整数阈值或中间结果溢出。
+        final BigDecimal number = exceedsFastPath || fractionDigits > MAX_FAST_DIGITS
+                ? new BigDecimal(normalize(text, numberStart, numberEnd))
+                : BigDecimal.valueOf(mantissa, fractionDigits);
+        final BigDecimal magnitude = unitIndex == -1 ? number : number.multiply(formatter.decimalThreshold(unitIndex));
+        if (magnitude.compareTo(LONG_MAX) > 0) {
+            return result.fail(OVERFLOW, start);
+        }
+        final boolean integral = magnitude.signum() == 0 || magnitude.stripTrailingZeros().scale() <= 0;
+        return result.succeed(negative, magnitude.longValue(), magnitude.doubleValue(), integral, unitIndex, end);
+    }
+
+    /**
+     * 去掉分组分隔符并将小数点替换为 {@code '.'}，供 {@link BigDecimal} 解析。
+     */
+    private char[] normalize(CharSequence text, int start, int end) {
+        final char[] digits = new char[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            final char c = text.charAt(i);
+            if (c == decimalSeparator) {
+                digits[length++] = '.';
+            } else if (c != groupingSeparator) {
+                digits[length++] = c;
+            }
+        }
+        return Arrays.copyOf(digits, length);
+    }
+
+    /**
+     * 可复用的解析结果。
+     */
+    public static final class Result {
+        private long longValue;
+        private double doubleValue;
+        private boolean integral;
+        private int unitIndex;
+        private int end;
+        private int error;
+
+        private void reset() {
+            longValue = 0;
+            doubleValue = 0;
+            integral = false;
+            unitIndex = -1;
+            end = 0;
+            error = OK;
+        }
+
+        private int fail(int error, int position) {
+            this.error = error;
+            this.end = position;
+            return error;
+        }
+
+        private int succeed(boolean negative, long magnitude, double doubleMagnitude, boolean integral, int unitIndex, int end) {
+            this.longValue = negative ? -magnitude : magnitude;
+            this.doubleValue = negative ? -doubleMagnitude : doubleMagnitude;
+            this.integral = integral;
+            this.unitIndex = unitIndex;
+            this.end = end;
+            this.error = OK;
+            return OK;
+        }
+
+        /**
+         * @return 解析结果向零截断后的 long 值；当 {@link #isIntegral()} 为 true 时是精确值。
+         */
+        public long longValue() {
+            return longValue;
+        }
+
+        /**
+         * @return 解析结果的 double 值。
+         */
+        public double doubleValue() {
+            return doubleValue;
+        }
+
+        /**
+         * @return 如果解析结果恰好是整数，则为 true。例如 {@code "1.5k"} 为 true，{@code "1.5"} 为 false。
+         */
+        public boolean isIntegral() {
+            return integral;
+        }
+
+        /**
+         * @return 匹配到的单位索引（按阈值升序）；没有单位时为 -1。
+         */
+        public int unitIndex() {
+            return unitIndex;
+        }
+
+        /**
+         * @return 成功时为解析结束的位置，失败时为出错字符的位置。
+         */
+        public int end() {
+            return end;
+        }
+
+        /**
+         * @return 最近一次解析的错误码。
+         */
+        public int error() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,548 @@
+package gloomcore.math.format;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static gloomcore.math.format.FormatSupport.DIGITS;
+import static gloomcore.math.format.FormatSupport.digitCount;
+
+/**
+ * 一个高性能、线程安全的时长格式化器，用于冷却时间、拍卖倒计时、封禁信息等场景。
+ * <p>
+ * 所有选项在 {@link Builder#build()} 时编译为单位毫秒数组与单位名称的字符/UTF-8 字节表，
+ * 格式化时只进行整数除法与数组拷贝，不使用 {@link String#format}，{@code formatTo} 系列方法不产生任何对象。
+ * <p>
+ * 支持三种样式：
+ * <ul>
+ *   <li>{@link Style#COMPACT}: {@code "1h 2m 5s"}，省略为 0 的单位。</li>
+ *   <li>{@link Style#LONG}: {@code "1 hour 2 minutes 5 seconds"}，区分单复数。</li>
+ *   <li>{@link Style#CLOCK}: {@code "01:02:05"}、{@code "00:45"}，显示最大与最小单位之间的所有字段。</li>
+ * </ul>
+ * 支持的单位为 {@link TimeUnit#DAYS} 到 {@link TimeUnit#MILLISECONDS}。超出最大单位的部分累计到最大单位上
+ * （例如最大单位为小时时输出 {@code "49h"}），小于最小单位的部分默认舍去，也可以选择向上取整。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * DurationFormatter cooldown = new DurationFormatter.Builder()
+ *         .largestUnit(TimeUnit.HOURS)
+ *         .smallestUnit(TimeUnit.SECONDS)
+ *         .roundUp()
+ *         .build();
+ *
+ * cooldown.format(3_725_000);   // 输出: 1h 2m 5s
+ * cooldown.formatTicks(900);    // 输出: 45s
+ *
+ * DurationFormatter clock = new DurationFormatter.Builder()
+ *         .style(DurationFormatter.Style.CLOCK)
+ *         .largestUnit(TimeUnit.MINUTES)
+ *         .zeroPadding()
+ *         .build();
+ * clock.format(45_000);         // 输出: 00:45
+ * }</pre>
+ */
+public final class DurationFormatter {
+    /**
+     * 每个游戏刻的毫秒数。
+     */
+    public static final long MILLIS_PER_TICK = 50;
+
+    private static final TimeUnit[] SUPPORTED_UNITS = {
+            TimeUnit.DAYS, TimeUnit.HOURS, TimeUnit.MINUTES, TimeUnit.SECONDS, TimeUnit.MILLISECONDS
+    };
+
+    /**
+     * 输出样式。
+     */
+    public enum Style {
+        /**
+         * 紧凑样式，例如 {@code "1h 2m 5s"}。
+         */
+        COMPACT,
+        /**
+         * 完整单位名称，例如 {@code "1 hour 2 minutes 5 seconds"}。
+         */
+        LONG,
+        /**
+         * 时钟样式，例如 {@code "01:02:05"}。
+         */
+        CLOCK
+    }
+
+    private final Style style;
+    private final boolean clock;
+    private final boolean roundUp;
+    private final int maxUnits;
+    /**
+     * 从最大到最小的单位毫秒数。
+     */
+    private final long[] unitMillis;
+    /**
+     * 每个单位数字的最小宽度，不足时补零。下标 0 为第一个输出的字段。
+     */
+    private final int[] minDigits;
+    private final int leadingMinDigits;
+    private final char[][] singularNames;
+    private final char[][] pluralNames;
+    private final byte[][] utf8SingularNames;
+    private final byte[][] utf8PluralNames;
+    /**
+     * 写在单位之前的分隔符；下标 0 不使用。
+     */
+    private final char[][] separators;
+    private final byte[][] utf8Separators;
+    private final char[] nameSeparator;
+    private final byte[] utf8NameSeparator;
+    private final ThreadLocal<StringBuilder> buffer;
+
+    private DurationFormatter(Builder builder, int first, int last) {
+        final int count = last - first + 1;
+        this.style = builder.style;
+        this.clock = style == Style.CLOCK;
+        this.roundUp = builder.roundUp;
+        this.maxUnits = clock ? count : Math.min(builder.maxUnits, count);
+        this.unitMillis = new long[count];
+        this.minDigits = new int[count];
+        this.singularNames = new char[count][];
+        this.pluralNames = new char[count][];
+        this.utf8SingularNames = new byte[count][];
+        this.utf8PluralNames = new byte[count][];
+        this.separators = new char[count][];
+        this.utf8Separators = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            final int unit = first + i;
+            final boolean millis = SUPPORTED_UNITS[unit] == TimeUnit.MILLISECONDS;
+            unitMillis[i] = SUPPORTED_UNITS[unit].toMillis(1);
+            minDigits[i] = clock || builder.zeroPadding ? (millis ? 3 : 2) : 1;
+            final String singular = clock ? "" : builder.singular[unit];
+            final String plural = clock ? "" : builder.plural[unit];
+            singularNames[i] = singular.toCharArray();
+            pluralNames[i] = plural.toCharArray();
+            utf8SingularNames[i] = singular.getBytes(StandardCharsets.UTF_8);
+            utf8PluralNames[i] = plural.getBytes(StandardCharsets.UTF_8);
+            final String separator = !clock ? builder.separator : millis ? "." : ":";
+            separators[i] = separator.toCharArray();
+            utf8Separators[i] = separator.getBytes(StandardCharsets.UTF_8);
+        }
+        this.leadingMinDigits = builder.zeroPadding ? minDigits[0] : 1;
+        final String nameSeparator = style == Style.LONG ? " " : "";
+        this.nameSeparator = nameSeparator.toCharArray();
+        this.utf8NameSeparator = nameSeparator.getBytes(StandardCharsets.UTF_8);
+        this.buffer = ThreadLocal.withInitial(() -> new StringBuilder(32));
+    }
+
+    /**
+     * 将游戏刻数换算为毫秒，溢出时饱和到 long 的边界。
+     *
+     * @param ticks 游戏刻数。
+     * @return 毫秒数。
+     */
+    public static long ticksToMillis(long ticks) {
+        final long millis = ticks * MILLIS_PER_TICK;
+        if (Math.multiplyHigh(ticks, MILLIS_PER_TICK) != (millis >> 63)) {
+            return ticks < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return millis;
+    }
+
+    /**
+     * 将纳秒数换算为毫秒，舍入方向与该格式化器一致（默认向零截断，{@link Builder#roundUp()} 时远离零）。
+     *
+     * @param nanos 纳秒数。
+     * @return 毫秒数。
+     */
+    public long nanosToMillis(long nanos) {
+        final long millis = nanos / 1_000_000;
+        if (roundUp && nanos % 1_000_000 != 0) {
+            return nanos < 0 ? millis - 1 : millis + 1;
+        }
+        return millis;
+    }
+
+    /**
+     * @return 输出样式。
+     */
+    public Style style() {
+        return style;
+    }
+
+    /**
+     * 将毫秒数格式化为字符串。
+     *
+     * @param millis 时长（毫秒），负数会在结果前添加 {@code '-'}。
+     * @return 格式化后的字符串。
+     */
+    public String format(long millis) {
+        final StringBuilder buf = buffer.get();
+        buf.setLength(0);
+        formatTo(millis, buf);
+        return buf.toString();
+    }
+
+    /**
+     * 将游戏刻数格式化为字符串。
+     *
+     * @param ticks 时长（游戏刻，1 刻 = 50 毫秒）。
+     * @return 格式化后的字符串。
+     */
+    public String formatTicks(long ticks) {
+        return format(ticksToMillis(ticks));
+    }
+
+    /**
+     * 将纳秒数格式化为字符串，例如 {@code System.nanoTime()} 的差值。
+     *
+     * @param nanos 时长（纳秒）。
+     * @return 格式化后的字符串。
+     */
+    public String formatNanos(long nanos) {
+        return format(nanosToMillis(nanos));
+    }
+
+    /**
+     * 将毫秒数格式化后追加到 {@link StringBuilder} 末尾，不产生中间对象。
+     * 游戏刻与纳秒输入可先通过 {@link #ticksToMillis(long)}、{@link #nanosToMillis(long)} 换算。
+     *
+     * @param millis 时长（毫秒）。
+     * @param out    目标 StringBuilder。
+     * @return 写入的字符数。
+     */
+    public int formatTo(long millis, StringBuilder out) {
+        final long magnitude = magnitude(millis);
+        final int shown = shownUnits(magnitude);
+        final int start = out.length();
+        if (millis < 0 && magnitude != 0) {
+            out.append('-');
+        }
+        boolean first = true;
+        for (int i = 0; i < unitMillis.length; i++) {
+            if ((shown & (1 << i)) == 0) {
+                continue;
+            }
+            final long value = valueOf(magnitude, i);
+            if (!first) {
+                out.append(separators[i]);
+            }
+            final int digits = Math.max(digitCount(value), first ? leadingMinDigits : minDigits[i]);
+            final int end = out.length() + digits;
+            out.setLength(end);
+            writeDigits(value, digits, out, end);
+            if (!clock) {
+                out.append(nameSeparator).append(value == 1 ? singularNames[i] : pluralNames[i]);
+            }
+            first = false;
+        }
+        return out.length() - start;
+    }
+
+    /**
+     * 将毫秒数格式化后写入 {@code char[]} 的指定位置。
+     *
+     * @param millis 时长（毫秒）。
+     * @param out    目标字符数组。
+     * @param offset 起始写入位置。
+     * @return 写入的字符数。
+     * @throws IndexOutOfBoundsException 如果数组剩余空间不足。
+     */
+    public int formatTo(long millis, char[] out, int offset) {
+        final long magnitude = magnitude(millis);
+        final int shown = shownUnits(magnitude);
+        final boolean negative = millis < 0 && magnitude != 0;
+        final int length = length(magnitude, shown, negative, false);
+        Objects.checkFromIndexSize(offset, length, out.length);
+
+        int pos = offset;
+        if (negative) {
+            out[pos++] = '-';
+        }
+        boolean first = true;
+        for (int i = 0; i < unitMillis.length; i++) {
+            if ((shown & (1 << i)) == 0) {
+                continue;
+            }
+            final long value = valueOf(magnitude, i);
+            if (!first) {
+                pos = copy(separators[i], out, pos);
+            }
+            final int digits = Math.max(digitCount(value), first ? leadingMinDigits : minDigits[i]);
+            pos += digits;
+            int digitPos = pos;
+            long remaining = value;
+            for (int d = 0; d < digits; d++) {
+                out[--digitPos] = DIGITS[(int) (remaining % 10)];
+                remaining /= 10;
+            }
+            if (!clock) {
+                pos = copy(nameSeparator, out, pos);
+                pos = copy(value == 1 ? singularNames[i] : pluralNames[i], out, pos);
+            }
+            first = false;
+        }
+        return length;
+    }
+
+    /**
+     * 将毫秒数以 UTF-8 编码写入 {@link ByteBuffer} 的当前位置，并推进其 position。
+     *
+     * @param millis 时长（毫秒）。
+     * @param out    目标缓冲区。
+     * @return 写入的字节数。
+     * @throws BufferOverflowException 如果缓冲区剩余空间不足；此时缓冲区不会被修改。
+     */
+    public int formatTo(long millis, ByteBuffer out) {
+        final long magnitude = magnitude(millis);
+        final int shown = shownUnits(magnitude);
+        final boolean negative = millis < 0 && magnitude != 0;
+        final int length = length(magnitude, shown, negative, true);
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        if (negative) {
+            out.put((byte) '-');
+        }
+        boolean first = true;
+        for (int i = 0; i < unitMillis.length; i++) {
+            if ((shown & (1 << i)) == 0) {
+                continue;
+            }
+            final long value = valueOf(magnitude, i);
+            if (!first) {
+                out.put(utf8Separators[i]);
+            }
+            final int digits = Math.max(digitCount(value), first ? leadingMinDigits : minDigits[i]);
+            final int end = out.position() + digits;
+            int digitPos = end;
+            long remaining = value;
+            for (int d = 0; d < digits; d++) {
+                out.put(--digitPos, (byte) DIGITS[(int) (remaining % 10)]);
+                remaining /= 10;
+            }
+            out.position(end);
+            if (!clock) {
+                out.put(utf8NameSeparator).put(value == 1 ? utf8SingularNames[i] : utf8PluralNames[i]);
+            }
+            first = false;
+        }
+        return length;
+    }
+
+    /**
+     * 取绝对值并按最小单位舍入。
+     */
+    private long magnitude(long millis) {
+        long magnitude = millis == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(millis);
+        final long smallest = unitMillis[unitMillis.length - 1];
+        final long remainder = magnitude % smallest;
+        if (remainder != 0) {
+            magnitude -= remainder;
+            if (roundUp && magnitude <= Long.MAX_VALUE - smallest) {
+                magnitude += smallest;
+            }
+        }
+        return magnitude;
+    }
+
+    /**
+     * 第 i 个单位的字段值；第一个单位累计所有更大的部分。
+     */
+    private long valueOf(long magnitude, int i) {
+        return i == 0 ? magnitude / unitMillis[0] : magnitude % unitMillis[i - 1] / unitMillis[i];
+    }
+
+    /**
+     * 计算需要输出的单位，以位掩码表示。
+     */
+    private int shownUnits(long magnitude) {
+        final int count = unitMillis.length;
+        if (clock) {
+            return (1 << count) - 1;
+        }
+        int leading = 0;
+        while (leading < count && valueOf(magnitude, leading) == 0) {
+            leading++;
+        }
+        if (leading == count) {
+            return 1 << (count - 1);
+        }
+        final int end = Math.min(leading + maxUnits, count);
+        int shown = 0;
+        for (int i = leading; i < end; i++) {
+            if (valueOf(magnitude, i) != 0) {
+                shown |= 1 << i;
+            }
+        }
+        return shown;
+    }
+
+    /**
+     * 计算输出长度。
+     *
+     * @param utf8 为 true 时计算 UTF-8 字节数，否则计算字符数。
+     */
+    private int length(long magnitude, int shown, boolean negative, boolean utf8) {
+        int length = negative ? 1 : 0;
+        boolean first = true;
+        for (int i = 0; i < unitMillis.length; i++) {
+            if ((shown & (1 << i)) == 0) {
+                continue;
+            }
+            final long value = valueOf(magnitude, i);
+            if (!first) {
+                length += utf8 ? utf8Separators[i].length : separators[i].length;
+            }
+            length += Math.max(digitCount(value), first ? leadingMinDigits : minDigits[i]);
+            if (!clock) {
+                length += utf8
+                        ? utf8NameSeparator.length + (value == 1 ? utf8SingularNames[i] : utf8PluralNames[i]).length
+                        : nameSeparator.length + (value == 1 ? singularNames[i] : pluralNames[i]).length;
+            }
+            first = false;
+        }
+        return length;
+    }
+
+    private static int copy(char[] source, char[] out, int pos) {
+        System.arraycopy(source, 0, out, pos, source.length);
+        return pos + source.length;
+    }
+
+    private static void writeDigits(long value, int digits, StringBuilder out, int end) {
+        int pos = end;
+        for (int d = 0; d < digits; d++) {
+            out.setCharAt(--pos, DIGITS[(int) (value % 10)]);
+            value /= 10;
+        }
+    }
+
+    private static int unitOrdinal(TimeUnit unit) {
+        for (int i = 0; i < SUPPORTED_UNITS.length; i++) {
+            if (SUPPORTED_UNITS[i] == unit) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported duration unit: " + unit);
+    }
+
+    /**
+     * {@link DurationFormatter} 的构建器。
+     */
+    public static class Builder {
+        private static final String[] COMPACT_NAMES = {"d", "h", "m", "s", "ms"};
+        private static final String[] LONG_SINGULAR = {"day", "hour", "minute", "second", "millisecond"};
+        private static final String[] LONG_PLURAL = {"days", "hours", "minutes", "seconds", "milliseconds"};
+
+        private Style style = Style.COMPACT;
+        private TimeUnit largestUnit = TimeUnit.DAYS;
+        private TimeUnit smallestUnit = TimeUnit.SECONDS;
+        private boolean zeroPadding;
+        private boolean roundUp;
+        private int maxUnits = Integer.MAX_VALUE;
+        private String separator = " ";
+        private final String[] singular = COMPACT_NAMES.clone();
+        private final String[] plural = COMPACT_NAMES.clone();
+
+        /**
+         * 设置输出样式，并将单位名称重置为该样式的默认英文名称。
+         *
+         * @param style 输出样式。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder style(Style style) {
+            this.style = Objects.requireNonNull(style, "style");
+            final boolean longNames = style == Style.LONG;
+            System.arraycopy(longNames ? LONG_SINGULAR : COMPACT_NAMES, 0, singular, 0, singular.length);
+            System.arraycopy(longNames ? LONG_PLURAL : COMPACT_NAMES, 0, plural, 0, plural.length);
+            return this;
+        }
+
+        /**
+         * @param unit 输出的最大单位，更大的部分会累计到该单位上。默认为 {@link TimeUnit#DAYS}。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder largestUnit(TimeUnit unit) {
+            unitOrdinal(unit);
+            this.largestUnit = unit;
+            return this;
+        }
+
+        /**
+         * @param unit 输出的最小单位，更小的部分按舍入规则处理。默认为 {@link TimeUnit#SECONDS}。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder smallestUnit(TimeUnit unit) {
+            unitOrdinal(unit);
+            this.smallestUnit = unit;
+            return this;
+        }
+
+        /**
+         * 将所有字段补零到两位（毫秒三位），例如 {@code "01h 02m 05s"}、{@code "00:45"}。
+         * 时钟样式中除第一个字段外总是补零。
+         *
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder zeroPadding() {
+            this.zeroPadding = true;
+            return this;
+        }
+
+        /**
+         * 小于最小单位的部分向上取整，适合倒计时：剩余 0.2 秒时仍显示 {@code "1s"}。
+         *
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder roundUp() {
+            this.roundUp = true;
+            return this;
+        }
+
+        /**
+         * 限制紧凑与完整样式中最多输出的相邻单位数，从第一个非零单位开始计数，例如 2 时输出 {@code "1d 3h"}。
+         *
+         * @param maxUnits 最多输出的单位数。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder maxUnits(int maxUnits) {
+            if (maxUnits <= 0) throw new IllegalArgumentException("Max units must be positive.");
+            this.maxUnits = maxUnits;
+            return this;
+        }
+
+        /**
+         * @param separator 紧凑与完整样式中各单位之间的分隔符，默认为一个空格。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder separator(String separator) {
+            this.separator = Objects.requireNonNull(separator, "separator");
+            return this;
+        }
+
+        /**
+         * 设置单位名称，用于本地化，例如 {@code unitName(TimeUnit.HOURS, "小时", "小时")}。
+         * 应在 {@link #style(Style)} 之后调用。
+         *
+         * @param unit     单位。
+         * @param singular 值为 1 时的名称。
+         * @param plural   其余情况的名称。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder unitName(TimeUnit unit, String singular, String plural) {
+            final int index = unitOrdinal(unit);
+            this.singular[index] = Objects.requireNonNull(singular, "singular");
+            this.plural[index] = Objects.requireNonNull(plural, "plural");
+            return this;
+        }
+
+        public DurationFormatter build() {
+            final int first = unitOrdinal(largestUnit);
+            final int last = unitOrdinal(smallestUnit);
+            if (first > last) {
+                throw new IllegalArgumentException("Largest unit must not be smaller than the smallest unit.");
+            }
+            return new DurationFormatter(this, first, last);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package gloomcore.math.format;
+
+/**
+ * 本包格式化器共享的数字写入工具：十的幂表、数字字符表与位数计算。
+ */
+final class FormatSupport {
+    /**
+     * 格式化器支持的最大小数位数。
+     */
+    static final int MAX_PRECISION = 17;
+    /**
+     * {@code POW10_CACHE[i] == 10^i}，覆盖 long 能表示的全部十的幂 (0 到 18)。
+     */
+    static final long[] POW10_CACHE = new long[19];
+    static final char[] DIGITS = "0123456789".toCharArray();
+
+    static {
+        long value = 1;
+        for (int i = 0; i < POW10_CACHE.length; i++) {
+            POW10_CACHE[i] = value;
+            value *= 10;
+        }
+    }
+
+    private FormatSupport() {
+    }
+
+    /**
+     * 计算非负数的十进制位数。
+     */
+    static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
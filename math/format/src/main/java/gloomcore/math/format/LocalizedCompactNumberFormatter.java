@@ -0,0 +1,184 @@
+package gloomcore.math.format;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按区域设置预编译的 {@link CompactNumberFormatter} 集合。
+ * <p>
+ * 每个区域设置在构建时编译一个独立的格式化器，拥有自己的单位后缀与 {@link NumberSymbols}。
+ * 运行时切换玩家的语言只需调用 {@link #get(Locale)}，它是一次并发哈希表查找，不会创建格式化器。
+ * <p>
+ * 查找顺序：完全匹配的区域设置 → 相同语言与国家 → 相同语言 → 默认格式化器。
+ * 解析结果会被缓存，因此带有变体或脚本的区域设置也只在第一次查找时回退。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * LocalizedCompactNumberFormatter formatters = new LocalizedCompactNumberFormatter.Builder(english)
+ *         .symbols(Locale.GERMANY)                          // 沿用默认单位，使用德语符号
+ *         .add(Locale.SIMPLIFIED_CHINESE, Map.of(1e4, "万", 1e8, "亿"))
+ *         .build();
+ *
+ * formatters.get(player.locale()).format(balance, 2);
+ * }</pre>
+ * 该类是线程安全的。
+ */
+public final class LocalizedCompactNumberFormatter {
+    private final CompactNumberFormatter fallback;
+    private final Map<Locale, CompactNumberFormatter> formatters;
+    private final Map<String, CompactNumberFormatter> byCountry;
+    private final Map<String, CompactNumberFormatter> byLanguage;
+    private final ConcurrentHashMap<Locale, CompactNumberFormatter> resolved = new ConcurrentHashMap<>();
+
+    private LocalizedCompactNumberFormatter(CompactNumberFormatter fallback, Map<Locale, CompactNumberFormatter> formatters) {
+        this.fallback = fallback;
+        this.formatters = Collections.unmodifiableMap(new LinkedHashMap<>(formatters));
+        this.byCountry = new HashMap<>();
+        this.byLanguage = new HashMap<>();
+        formatters.forEach((locale, formatter) -> {
+            byCountry.putIfAbsent(countryKey(locale), formatter);
+            byLanguage.putIfAbsent(locale.getLanguage(), formatter);
+        });
+    }
+
+    private static String countryKey(Locale locale) {
+        return locale.getLanguage() + '_' + locale.getCountry();
+    }
+
+    /**
+     * 获取指定区域设置的格式化器。
+     *
+     * @param locale 区域设置；为 null 时返回默认格式化器。
+     * @return 对应的格式化器，找不到时为默认格式化器。
+     */
+    public CompactNumberFormatter get(Locale locale) {
+        if (locale == null) {
+            return fallback;
+        }
+        CompactNumberFormatter formatter = resolved.get(locale);
+        if (formatter == null) {
+            formatter = resolve(locale);
+            resolved.putIfAbsent(locale, formatter);
+        }
+        return formatter;
+    }
+
+    private CompactNumberFormatter resolve(Locale locale) {
+        CompactNumberFormatter formatter = formatters.get(locale);
+        if (formatter == null) {
+            formatter = byCountry.get(countryKey(locale));
+        }
+        if (formatter == null) {
+            formatter = byLanguage.get(locale.getLanguage());
+        }
+        return formatter != null ? formatter : fallback;
+    }
+
+    /**
+     * 使用指定区域设置的格式化器格式化数值。
+     *
+     * @param locale    区域设置。
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 格式化后的字符串。
+     */
+    public String format(Locale locale, double value, int precision) {
+        return get(locale).format(value, precision);
+    }
+
+    /**
+     * 使用指定区域设置的格式化器格式化 long 数值。
+     *
+     * @param locale    区域设置。
+     * @param value     要进行格式化的数值。
+     * @param precision 小数点后的精度位数。必须在 0 到 17 之间。
+     * @return 格式化后的字符串。
+     */
+    public String format(Locale locale, long value, int precision) {
+        return get(locale).format(value, precision);
+    }
+
+    /**
+     * @return 找不到匹配区域设置时使用的格式化器。
+     */
+    public CompactNumberFormatter fallback() {
+        return fallback;
+    }
+
+    /**
+     * @return 显式注册的区域设置。
+     */
+    public Set<Locale> locales() {
+        return formatters.keySet();
+    }
+
+    /**
+     * {@link LocalizedCompactNumberFormatter} 的构建器。
+     */
+    public static class Builder {
+        private final CompactNumberFormatter fallback;
+        private final Map<Locale, CompactNumberFormatter> formatters = new LinkedHashMap<>();
+
+        /**
+         * @param fallback 默认格式化器，同时也是 {@link #symbols(Locale)} 使用的单位表来源。
+         */
+        public Builder(CompactNumberFormatter fallback) {
+            this.fallback = Objects.requireNonNull(fallback, "fallback");
+        }
+
+        /**
+         * 为区域设置注册一个已经构建好的格式化器。
+         *
+         * @param locale    区域设置。
+         * @param formatter 格式化器。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder add(Locale locale, CompactNumberFormatter formatter) {
+            formatters.put(Objects.requireNonNull(locale, "locale"), Objects.requireNonNull(formatter, "formatter"));
+            return this;
+        }
+
+        /**
+         * 为区域设置注册本地化的单位后缀，符号取自该区域设置。
+         *
+         * @param locale        区域设置。
+         * @param configuration 一个Map，其键(Key)是阈值(double)，值(Value)是单位(String)。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder add(Locale locale, Map<Double, String> configuration) {
+            return add(locale, CompactNumberFormatter.of(configuration, NumberSymbols.of(locale)));
+        }
+
+        /**
+         * 为区域设置注册本地化的单位后缀与显式指定的符号。
+         *
+         * @param locale        区域设置。
+         * @param configuration 一个Map，其键(Key)是阈值(double)，值(Value)是单位(String)。
+         * @param symbols       小数点与分组符号。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder add(Locale locale, Map<Double, String> configuration, NumberSymbols symbols) {
+            return add(locale, CompactNumberFormatter.of(configuration, symbols));
+        }
+
+        /**
+         * 为区域设置注册一个沿用默认单位表、但使用该区域设置符号的格式化器。
+         *
+         * @param locale 区域设置。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder symbols(Locale locale) {
+            return add(locale, fallback.withSymbols(NumberSymbols.of(locale)));
+        }
+
+        public LocalizedCompactNumberFormatter build() {
+            return new LocalizedCompactNumberFormatter(fallback, formatters);
+        }
+    }
+}
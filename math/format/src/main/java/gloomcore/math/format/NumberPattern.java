@@ -0,0 +1,594 @@
+package gloomcore.math.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static gloomcore.math.format.FormatSupport.DIGITS;
+import static gloomcore.math.format.FormatSupport.MAX_PRECISION;
+import static gloomcore.math.format.FormatSupport.POW10_CACHE;
+import static gloomcore.math.format.FormatSupport.digitCount;
+
+/**
+ * 预编译的数字格式模式，作为 {@link java.text.DecimalFormat} 的高性能替代。
+ * <p>
+ * 模式字符串在 {@link #compile(String)} 时被编译为不可变的指令数组，格式化时由一个紧凑的循环解释执行，
+ * 不查询区域设置、不创建中间对象。实例不可变，可在多线程间直接共享，无需 {@link ThreadLocal}。
+ *
+ * <h2>模式语法</h2>
+ * <ul>
+ *   <li>{@code 0}: 必须输出的数字位；{@code #}: 可省略的数字位。</li>
+ *   <li>{@code ,}: 分组分隔符，与整数部分末尾的距离决定分组大小；{@code .}: 小数点。</li>
+ *   <li>{@code %} / {@code ‰}: 数值乘以 100 / 1000 并原样输出该符号。</li>
+ *   <li>开头的 {@code +}: 正数也输出符号，适合差值显示，例如 {@code "+1.2K"}。零不输出符号。</li>
+ *   <li>后缀中的 {@code {ordinal}}: 英文序数后缀（st、nd、rd、th），要求模式不含小数位。</li>
+ *   <li>{@code '...'}: 引用的字面文本，{@code ''} 表示单引号本身。其余字符均作为前缀或后缀原样输出。</li>
+ * </ul>
+ * 通过 {@link #compile(String, CompactNumberFormatter)} 可以与紧凑单位组合，数值先按单位缩放，单位紧跟在数字之后。
+ * <p>
+ * 舍入方式为 {@link java.math.RoundingMode#HALF_UP}。long 输入全程精确；double 输入与 {@link CompactNumberFormatter}
+ * 一样在二进制乘积上舍入，恰好落在舍入边界上的十进制字面量（如 {@code 0.125}）可能与精确十进制舍入相差最后一位。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * NumberPattern money = NumberPattern.compile("$#,##0.00");
+ * money.format(1234567.891);                        // 输出: $1,234,567.89
+ *
+ * NumberPattern.compile("0.#%").format(0.256);      // 输出: 25.6%
+ * NumberPattern.compile("+0.#", compact).format(1234.0); // 输出: +1.2K
+ * NumberPattern.compile("0{ordinal}").format(22);   // 输出: 22nd
+ * }</pre>
+ */
+public final class NumberPattern {
+    private static final int OP_SIGN = 0;
+    private static final int OP_LITERAL = 1;
+    private static final int OP_NUMBER = 2;
+    private static final int OP_UNIT = 3;
+    private static final int OP_ORDINAL = 4;
+    private static final int OP_BITS = 3;
+    private static final int OP_MASK = (1 << OP_BITS) - 1;
+
+    private static final String ORDINAL_TOKEN = "{ordinal}";
+    private static final char[][] ORDINAL_SUFFIXES = {"th".toCharArray(), "st".toCharArray(), "nd".toCharArray(), "rd".toCharArray()};
+    /**
+     * double 路径的定点数达到该值时，乘法的舍入误差可能影响最后一位，改用精确的 {@link BigDecimal} 路径。
+     */
+    private static final long EXACT_DOUBLE_LIMIT = 1L << 50;
+    private static final CompactNumberFormatter NO_UNITS = CompactNumberFormatter.of(Map.of());
+
+    /**
+     * 编译后的指令：低 {@link #OP_BITS} 位为操作码，其余位为操作数（字面文本下标）。
+     */
+    private final int[] program;
+    private final char[][] literals;
+    private final CompactNumberFormatter units;
+    private final boolean explicitSign;
+    private final long multiplier;
+    private final int minIntegerDigits;
+    private final int minFractionDigits;
+    private final int maxFractionDigits;
+    /**
+     * 分组大小；不分组时为 {@link Integer#MAX_VALUE}。
+     */
+    private final int groupingInterval;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final String pattern;
+
+    private NumberPattern(String pattern, int[] program, char[][] literals, CompactNumberFormatter units,
+                          boolean explicitSign, long multiplier, int minIntegerDigits, int minFractionDigits,
+                          int maxFractionDigits, int groupingSize, NumberSymbols symbols) {
+        this.pattern = pattern;
+        this.program = program;
+        this.literals = literals;
+        this.units = units;
+        this.explicitSign = explicitSign;
+        this.multiplier = multiplier;
+        this.minIntegerDigits = minIntegerDigits;
+        this.minFractionDigits = minFractionDigits;
+        this.maxFractionDigits = maxFractionDigits;
+        this.groupingInterval = groupingSize > 0 ? groupingSize : Integer.MAX_VALUE;
+        this.groupingSeparator = symbols.grouping() ? symbols.groupingSeparator() : ',';
+        this.decimalSeparator = symbols.decimalSeparator();
+    }
+
+    /**
+     * 使用默认符号编译模式。
+     *
+     * @param pattern 模式字符串，例如 {@code "#,##0.00"}。
+     * @return 编译后的模式。
+     * @throws IllegalArgumentException 如果模式不合法。
+     */
+    public static NumberPattern compile(String pattern) {
+        return compile(pattern, NO_UNITS, NumberSymbols.DEFAULT);
+    }
+
+    /**
+     * 使用指定的本地化符号编译模式。模式中的 {@code ,} 与 {@code .} 分别输出为符号中的分组分隔符与小数点。
+     *
+     * @param pattern 模式字符串。
+     * @param symbols 小数点与分组符号。
+     * @return 编译后的模式。
+     * @throws IllegalArgumentException 如果模式不合法。
+     */
+    public static NumberPattern compile(String pattern, NumberSymbols symbols) {
+        return compile(pattern, NO_UNITS, symbols);
+    }
+
+    /**
+     * 编译一个带紧凑单位的模式，单位表与符号取自给定的格式化器。
+     *
+     * @param pattern 模式字符串，例如 {@code "+0.#"}。
+     * @param units   提供单位表与符号的格式化器。
+     * @return 编译后的模式。
+     * @throws IllegalArgumentException 如果模式不合法。
+     */
+    public static NumberPattern compile(String pattern, CompactNumberFormatter units) {
+        Objects.requireNonNull(units, "units");
+        return compile(pattern, units, units.symbols());
+    }
+
+    private static NumberPattern compile(String pattern, CompactNumberFormatter units, NumberSymbols symbols) {
+        Objects.requireNonNull(pattern, "pattern");
+        Objects.requireNonNull(symbols, "symbols");
+        final List<Integer> program = new ArrayList<>();
+        final List<char[]> literals = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        program.add(OP_SIGN);
+
+        int pos = 0;
+        final boolean explicitSign = pattern.startsWith("+");
+        if (explicitSign) {
+            pos++;
+        }
+        long multiplier = 1;
+        boolean numberSeen = false;
+        boolean ordinal = false;
+        int minInteger = 0;
+        int minFraction = 0;
+        int maxFraction = 0;
+        int groupingSize = 0;
+
+        final int length = pattern.length();
+        while (pos < length) {
+            final char c = pattern.charAt(pos);
+            if (!numberSeen && isNumberChar(c)) {
+                flushLiteral(literal, program, literals);
+                boolean inFraction = false;
+                boolean grouping = false;
+                int sinceGrouping = 0;
+                int digits = 0;
+                for (; pos < length && isNumberChar(pattern.charAt(pos)); pos++) {
+                    final char n = pattern.charAt(pos);
+                    if (n == '.') {
+                        if (inFraction) {
+                            throw new IllegalArgumentException("Multiple decimal separators in pattern: " + pattern);
+                        }
+                        inFraction = true;
+                    } else if (n == ',') {
+                        if (inFraction) {
+                            throw new IllegalArgumentException("Grouping separator in fraction part: " + pattern);
+                        }
+                        grouping = true;
+                        sinceGrouping = 0;
+                    } else if (inFraction) {
+                        if (n == '0') {
+                            if (maxFraction != minFraction) {
+                                throw new IllegalArgumentException("'0' after '#' in fraction part: " + pattern);
+                            }
+                            minFraction++;
+                        }
+                        maxFraction++;
+                        digits++;
+                    } else {
+                        if (n == '0') {
+                            minInteger++;
+                        } else if (minInteger > 0) {
+                            throw new IllegalArgumentException("'#' after '0' in integer part: " + pattern);
+                        }
+                        sinceGrouping++;
+                        digits++;
+                    }
+                }
+                if (digits == 0) {
+                    throw new IllegalArgumentException("Pattern has no digits: " + pattern);
+                }
+                if (grouping) {
+                    if (sinceGrouping == 0) {
+                        throw new IllegalArgumentException("Grouping separator at the end of integer part: " + pattern);
+                    }
+                    groupingSize = sinceGrouping;
+                }
+                if (maxFraction > MAX_PRECISION) {
+                    throw new IllegalArgumentException("Pattern allows at most " + MAX_PRECISION + " fraction digits: " + pattern);
+                }
+                program.add(OP_NUMBER);
+                if (units.unitCount() > 0) {
+                    program.add(OP_UNIT);
+                }
+                numberSeen = true;
+                continue;
+            }
+            if (c == '\'') {
+                final int close = pattern.indexOf('\'', pos + 1);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in pattern: " + pattern);
+                }
+                literal.append(close == pos + 1 ? "'" : pattern.substring(pos + 1, close));
+                pos = close + 1;
+            } else if (numberSeen && pattern.startsWith(ORDINAL_TOKEN, pos)) {
+                flushLiteral(literal, program, literals);
+                program.add(OP_ORDINAL);
+                ordinal = true;
+                pos += ORDINAL_TOKEN.length();
+            } else {
+                if (c == '%' || c == '‰') {
+                    if (multiplier != 1) {
+                        throw new IllegalArgumentException("Multiple percent signs in pattern: " + pattern);
+                    }
+                    multiplier = c == '%' ? 100 : 1000;
+                }
+                literal.append(c);
+                pos++;
+            }
+        }
+        flushLiteral(literal, program, literals);
+        if (!numberSeen) {
+            throw new IllegalArgumentException("Pattern has no number part: " + pattern);
+        }
+        if (ordinal && maxFraction > 0) {
+            throw new IllegalArgumentException("Ordinal patterns cannot have fraction digits: " + pattern);
+        }
+
+        final int[] compiled = new int[program.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = program.get(i);
+        }
+        return new NumberPattern(pattern, compiled, literals.toArray(new char[0][]), units, explicitSign, multiplier,
+                minInteger, minFraction, maxFraction, groupingSize, symbols);
+    }
+
+    private static boolean isNumberChar(char c) {
+        return c == '#' || c == '0' || c == ',' || c == '.';
+    }
+
+    private static void flushLiteral(StringBuilder literal, List<Integer> program, List<char[]> literals) {
+        if (!literal.isEmpty()) {
+            program.add(OP_LITERAL | (literals.size() << OP_BITS));
+            literals.add(literal.toString().toCharArray());
+            literal.setLength(0);
+        }
+    }
+
+    /**
+     * 将 double 值格式化为字符串。
+     *
+     * @param value 要进行格式化的数值。
+     * @return 格式化后的字符串。
+     */
+    public String format(double value) {
+        final StringBuilder out = new StringBuilder(24);
+        formatTo(value, out);
+        return out.toString();
+    }
+
+    /**
+     * 将 long 值格式化为字符串，缩放与舍入全程使用整数运算。
+     *
+     * @param value 要进行格式化的数值。
+     * @return 格式化后的字符串。
+     */
+    public String format(long value) {
+        final StringBuilder out = new StringBuilder(24);
+        formatTo(value, out);
+        return out.toString();
+    }
+
+    /**
+     * 将 double 值格式化后追加到 {@link StringBuilder} 末尾。
+     * <p>
+     * {@code NaN} 输出为 {@code "NaN"}，无穷大输出为带符号的 {@code "∞"}。
+     *
+     * @param value 要进行格式化的数值。
+     * @param out   目标 StringBuilder。
+     * @return 写入的字符数。
+     */
+    public int formatTo(double value, StringBuilder out) {
+        final int start = out.length();
+        if (!Double.isFinite(value)) {
+            out.append(Double.isNaN(value) ? "NaN" : value > 0 ? (explicitSign ? "+∞" : "∞") : "-∞");
+            return out.length() - start;
+        }
+        final double magnitude = Math.abs(value) * multiplier;
+        final int unitIndex = units.resolveUnit(magnitude, maxFractionDigits);
+        long fixed = units.toFixed(magnitude, unitIndex, POW10_CACHE[maxFractionDigits]);
+        if (fixed >= EXACT_DOUBLE_LIMIT) {
+            return writeDecimal(out, BigDecimal.valueOf(value));
+        }
+        int fraction = maxFractionDigits;
+        while (fraction > minFractionDigits && fixed % 10 == 0) {
+            fixed /= 10;
+            fraction--;
+        }
+        return write(out, value < 0, fixed, null, fraction, unitIndex);
+    }
+
+    /**
+     * 将 long 值格式化后追加到 {@link StringBuilder} 末尾。
+     *
+     * @param value 要进行格式化的数值。
+     * @param out   目标 StringBuilder。
+     * @return 写入的字符数。
+     */
+    public int formatTo(long value, StringBuilder out) {
+        final long magnitude = scaledMagnitude(value);
+        final int unitIndex = magnitude < 0 ? -1 : units.resolveUnit(magnitude, maxFractionDigits);
+        long fixed = magnitude < 0 ? -1 : units.toFixed(magnitude, unitIndex, maxFractionDigits);
+        if (fixed < 0) {
+            return writeDecimal(out, BigDecimal.valueOf(value));
+        }
+        int fraction = maxFractionDigits;
+        while (fraction > minFractionDigits && fixed % 10 == 0) {
+            fixed /= 10;
+            fraction--;
+        }
+        return write(out, value < 0, fixed, null, fraction, unitIndex);
+    }
+
+    /**
+     * 将 double 值格式化后写入 {@code char[]} 的指定位置。
+     *
+     * @param value  要进行格式化的数值。
+     * @param out    目标字符数组。
+     * @param offset 起始写入位置。
+     * @return 写入的字符数。
+     * @throws IndexOutOfBoundsException 如果数组剩余空间不足。
+     */
+    public int formatTo(double value, char[] out, int offset) {
+        if (!Double.isFinite(value)) {
+            return copyFallback(value, out, offset);
+        }
+        final double magnitude = Math.abs(value) * multiplier;
+        final int unitIndex = units.resolveUnit(magnitude, maxFractionDigits);
+        long fixed = units.toFixed(magnitude, unitIndex, POW10_CACHE[maxFractionDigits]);
+        if (fixed >= EXACT_DOUBLE_LIMIT) {
+            return copyFallback(value, out, offset);
+        }
+        int fraction = maxFractionDigits;
+        while (fraction > minFractionDigits && fixed % 10 == 0) {
+            fixed /= 10;
+            fraction--;
+        }
+        return write(out, offset, value < 0, fixed, null, fraction, unitIndex);
+    }
+
+    /**
+     * 将 long 值格式化后写入 {@code char[]} 的指定位置。
+     *
+     * @param value  要进行格式化的数值。
+     * @param out    目标字符数组。
+     * @param offset 起始写入位置。
+     * @return 写入的字符数。
+     * @throws IndexOutOfBoundsException 如果数组剩余空间不足。
+     */
+    public int formatTo(long value, char[] out, int offset) {
+        final long magnitude = scaledMagnitude(value);
+        final int unitIndex = magnitude < 0 ? -1 : units.resolveUnit(magnitude, maxFractionDigits);
+        long fixed = magnitude < 0 ? -1 : units.toFixed(magnitude, unitIndex, maxFractionDigits);
+        if (fixed < 0) {
+            final StringBuilder slow = new StringBuilder(48);
+            final int length = writeDecimal(slow, BigDecimal.valueOf(value));
+            Objects.checkFromIndexSize(offset, length, out.length);
+            slow.getChars(0, length, out, offset);
+            return length;
+        }
+        int fraction = maxFractionDigits;
+        while (fraction > minFractionDigits && fixed % 10 == 0) {
+            fixed /= 10;
+            fraction--;
+        }
+        return write(out, offset, value < 0, fixed, null, fraction, unitIndex);
+    }
+
+    /**
+     * @return 编译前的模式字符串。
+     */
+    public String pattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * @return 乘以百分号倍数后的绝对值；溢出时返回 -1。
+     */
+    private long scaledMagnitude(long value) {
+        if (value == Long.MIN_VALUE) {
+            return -1;
+        }
+        final long magnitude = Math.abs(value);
+        final long scaled = magnitude * multiplier;
+        return Math.multiplyHigh(magnitude, multiplier) == 0 && scaled >= 0 ? scaled : -1;
+    }
+
+    /**
+     * 非有限值与超出精确定点范围的值：先写入临时缓冲区再复制，仅在这些罕见情况下产生分配。
+     */
+    private int copyFallback(double value, char[] out, int offset) {
+        final StringBuilder slow = new StringBuilder(48);
+        final int length = formatTo(value, slow);
+        Objects.checkFromIndexSize(offset, length, out.length);
+        slow.getChars(0, length, out, offset);
+        return length;
+    }
+
+    /**
+     * 通用的 {@link BigDecimal} 路径，用于定点数超出 long 或 double 精确范围的情况。
+     */
+    private int writeDecimal(StringBuilder out, BigDecimal value) {
+        final BigDecimal magnitude = value.abs().multiply(BigDecimal.valueOf(multiplier));
+        final int unitIndex = units.resolveUnit(magnitude, maxFractionDigits);
+        BigInteger unscaled = units.scale(magnitude, unitIndex, maxFractionDigits).unscaledValue();
+        int fraction = maxFractionDigits;
+        while (fraction > minFractionDigits) {
+            final BigInteger[] quotientAndRemainder = unscaled.divideAndRemainder(BigInteger.TEN);
+            if (quotientAndRemainder[1].signum() != 0) {
+                break;
+            }
+            unscaled = quotientAndRemainder[0];
+            fraction--;
+        }
+        return write(out, value.signum() < 0, 0, unscaled.toString(), fraction, unitIndex);
+    }
+
+    /**
+     * 第 k 位十进制数字（0 为最低位）。
+     */
+    private static int digitAt(long fixed, String digits, int k) {
+        if (digits == null) {
+            return k < POW10_CACHE.length ? (int) (fixed / POW10_CACHE[k] % 10) : 0;
+        }
+        final int index = digits.length() - 1 - k;
+        return index >= 0 ? digits.charAt(index) - '0' : 0;
+    }
+
+    private int integerDigits(long fixed, String digits, int fraction) {
+        final int total = digits == null ? digitCount(fixed) : digits.length();
+        final int integer = Math.max(total - fraction, minIntegerDigits);
+        return integer == 0 && fraction == 0 ? 1 : integer;
+    }
+
+    private static char[] ordinalSuffix(long fixed, String digits) {
+        final int lastTwo = digits == null
+                ? (int) (fixed % 100)
+                : digitAt(0, digits, 1) * 10 + digitAt(0, digits, 0);
+        if (lastTwo >= 11 && lastTwo <= 13) {
+            return ORDINAL_SUFFIXES[0];
+        }
+        final int last = lastTwo % 10;
+        return last <= 3 ? ORDINAL_SUFFIXES[last] : ORDINAL_SUFFIXES[0];
+    }
+
+    private int length(boolean sign, long fixed, String digits, int fraction, int unitIndex) {
+        int length = 0;
+        for (int instruction : program) {
+            switch (instruction & OP_MASK) {
+                case OP_SIGN -> length += sign ? 1 : 0;
+                case OP_LITERAL -> length += literals[instruction >>> OP_BITS].length;
+                case OP_NUMBER -> {
+                    final int integer = integerDigits(fixed, digits, fraction);
+                    length += integer + (integer - 1) / groupingInterval + (fraction > 0 ? 1 + fraction : 0);
+                }
+                case OP_UNIT -> length += unitIndex != -1 ? units.unit(unitIndex).length : 0;
+                case OP_ORDINAL -> length += 2;
+                default -> throw new IllegalStateException();
+            }
+        }
+        return length;
+    }
+
+    private boolean isZero(long fixed, String digits) {
+        return digits == null ? fixed == 0 : digits.equals("0");
+    }
+
+    /**
+     * 解释执行指令数组，写入字符数组。
+     */
+    private int write(char[] out, int offset, boolean negative, long fixed, String digits, int fraction, int unitIndex) {
+        final boolean zero = isZero(fixed, digits);
+        final char sign = zero ? 0 : negative ? '-' : explicitSign ? '+' : 0;
+        final int length = length(sign != 0, fixed, digits, fraction, unitIndex);
+        Objects.checkFromIndexSize(offset, length, out.length);
+
+        int pos = offset;
+        for (int instruction : program) {
+            switch (instruction & OP_MASK) {
+                case OP_SIGN -> {
+                    if (sign != 0) {
+                        out[pos++] = sign;
+                    }
+                }
+                case OP_LITERAL -> {
+                    final char[] literal = literals[instruction >>> OP_BITS];
+                    System.arraycopy(literal, 0, out, pos, literal.length);
+                    pos += literal.length;
+                }
+                case OP_NUMBER -> {
+                    for (int p = integerDigits(fixed, digits, fraction) - 1; p >= 0; p--) {
+                        out[pos++] = DIGITS[digitAt(fixed, digits, p + fraction)];
+                        if (p > 0 && p % groupingInterval == 0) {
+                            out[pos++] = groupingSeparator;
+                        }
+                    }
+                    if (fraction > 0) {
+                        out[pos++] = decimalSeparator;
+                        for (int k = fraction - 1; k >= 0; k--) {
+                            out[pos++] = DIGITS[digitAt(fixed, digits, k)];
+                        }
+                    }
+                }
+                case OP_UNIT -> {
+                    if (unitIndex != -1) {
+                        final char[] unit = units.unit(unitIndex);
+                        System.arraycopy(unit, 0, out, pos, unit.length);
+                        pos += unit.length;
+                    }
+                }
+                case OP_ORDINAL -> {
+                    final char[] suffix = ordinalSuffix(fixed, digits);
+                    out[pos++] = suffix[0];
+                    out[pos++] = suffix[1];
+                }
+                default -> throw new IllegalStateException();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 解释执行指令数组，追加到 StringBuilder。
+     */
+    private int write(StringBuilder out, boolean negative, long fixed, String digits, int fraction, int unitIndex) {
+        final int start = out.length();
+        final boolean zero = isZero(fixed, digits);
+        final char sign = zero ? 0 : negative ? '-' : explicitSign ? '+' : 0;
+        for (int instruction : program) {
+            switch (instruction & OP_MASK) {
+                case OP_SIGN -> {
+                    if (sign != 0) {
+                        out.append(sign);
+                    }
+                }
+                case OP_LITERAL -> out.append(literals[instruction >>> OP_BITS]);
+                case OP_NUMBER -> {
+                    for (int p = integerDigits(fixed, digits, fraction) - 1; p >= 0; p--) {
+                        out.append(DIGITS[digitAt(fixed, digits, p + fraction)]);
+                        if (p > 0 && p % groupingInterval == 0) {
+                            out.append(groupingSeparator);
+                        }
+                    }
+                    if (fraction > 0) {
+                        out.append(decimalSeparator);
+                        for (int k = fraction - 1; k >= 0; k--) {
+                            out.append(DIGITS[digitAt(fixed, digits, k)]);
+                        }
+                    }
+                }
+                case OP_UNIT -> {
+                    if (unitIndex != -1) {
+                        out.append(units.unit(unitIndex));
+                    }
+                }
+                case OP_ORDINAL -> out.append(ordinalSuffix(fixed, digits));
+                default -> throw new IllegalStateException();
+            }
+        }
+        return out.length() - start;
+    }
+}
@@ -0,0 +1,70 @@
+package gloomcore.math.format;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 数字格式化使用的本地化符号：小数点、分组分隔符与分组大小。
+ * <p>
+ * 该记录只在构建格式化器时读取一次，格式化过程中直接使用预编译的字符，
+ * 因此不会像 {@link NumberFormat} 一样在每次调用时查询 {@link DecimalFormatSymbols}。
+ *
+ * @param decimalSeparator  小数点字符。
+ * @param groupingSeparator 整数部分的分组分隔符；为 {@code '\0'} 时表示不分组。
+ * @param groupingSize      每组的数字个数；不分组时为 0。
+ */
+public record NumberSymbols(char decimalSeparator, char groupingSeparator, int groupingSize) {
+    /**
+     * 默认符号：{@code '.'} 作为小数点，不分组。与未指定符号时的行为一致。
+     */
+    public static final NumberSymbols DEFAULT = new NumberSymbols('.', '\0', 0);
+
+    public NumberSymbols {
+        if (Character.isSurrogate(decimalSeparator) || Character.isSurrogate(groupingSeparator)) {
+            throw new IllegalArgumentException("Separators must not be surrogate characters.");
+        }
+        if (groupingSeparator == '\0' ? groupingSize != 0 : groupingSize <= 0) {
+            throw new IllegalArgumentException("Grouping size must be positive if and only if a grouping separator is set.");
+        }
+        if (groupingSeparator != '\0' && groupingSeparator == decimalSeparator) {
+            throw new IllegalArgumentException("Grouping separator must differ from the decimal separator.");
+        }
+    }
+
+    /**
+     * 读取指定区域设置的小数点、分组分隔符与分组大小。
+     *
+     * @param locale 区域设置。
+     * @return 对应的符号。
+     */
+    public static NumberSymbols of(Locale locale) {
+        Objects.requireNonNull(locale, "locale");
+        final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        final NumberFormat format = NumberFormat.getNumberInstance(locale);
+        int groupingSize = 3;
+        if (format instanceof DecimalFormat decimalFormat) {
+            groupingSize = decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0;
+        }
+        if (groupingSize <= 0) {
+            return new NumberSymbols(symbols.getDecimalSeparator(), '\0', 0);
+        }
+        return new NumberSymbols(symbols.getDecimalSeparator(), symbols.getGroupingSeparator(), groupingSize);
+    }
+
+    /**
+     * @return 小数点与本实例相同、但不分组的符号。
+     */
+    public NumberSymbols withoutGrouping() {
+        return new NumberSymbols(decimalSeparator, '\0', 0);
+    }
+
+    /**
+     * @return 如果启用了分组，则为 true。
+     */
+    public boolean grouping() {
+        return groupingSeparator != '\0';
+    }
+}
@@ -25,4 +25,24 @@ public interface IntervalQueryEngine<T> {
      * @return 如果找到匹配的区间，则返回该 {@code Interval} 对象；否则返回 null。
      */
     Interval<T> getInterval(int point);
+
+    /**
+     * 批量查询一组整数点，将每个点所在区间关联的值写入 {@code out} 的对应位置。
+     * <p>
+     * 默认实现逐个调用 {@link #getValue(int)}。静态引擎会覆盖此方法：输入已升序排列时，
+     * 以线性归并（结合倍增跳跃）一次扫过区间数组；否则将多个点的查找交错进行，使彼此独立的内存访问重叠，
+     * 以隐藏缓存未命中的延迟。
+     *
+     * @param points 要查询的整数点。
+     * @param out    接收结果的数组，{@code out[i]} 对应 {@code points[i]}，未命中时写入 null。
+     * @throws IllegalArgumentException 如果 {@code out} 的长度小于 {@code points} 的长度。
+     */
+    default void getValues(int[] points, T[] out) {
+        if (out.length < points.length) {
+            throw new IllegalArgumentException("Output array is shorter than points array.");
+        }
+        for (int i = 0; i < points.length; i++) {
+            out[i] = getValue(points[i]);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package gloomcore.math.interval;
+
+import java.util.function.Consumer;
+
+/**
+ * 在点查询之外，额外支持范围相交查询的区间查询引擎。
+ * <p>
+ * 范围查询返回所有与闭区间 [from, to] 相交（至少共享一个整数点）的区间，
+ * 例如选出与某个等级窗口重叠的所有阶段，或某个分数范围涉及的所有奖励档位。
+ * 实现应利用已有的有序布局，在 O(log n + k) 时间内完成，且不产生任何分配，其中 k 为结果数量。
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public interface IntervalRangeQueryEngine<T> extends IntervalQueryEngine<T> {
+
+    /**
+     * 统计与 [from, to] 相交的区间数量。
+     *
+     * @param from 查询范围的起始点（包含）。
+     * @param to   查询范围的结束点（包含）。
+     * @return 相交区间的数量。
+     * @throws IllegalArgumentException 如果 from 大于 to。
+     */
+    int countIntersecting(int from, int to);
+
+    /**
+     * 对每个与 [from, to] 相交的区间调用一次 {@code action}。
+     *
+     * @param from   查询范围的起始点（包含）。
+     * @param to     查询范围的结束点（包含）。
+     * @param action 对每个相交区间执行的操作。
+     * @throws IllegalArgumentException 如果 from 大于 to。
+     */
+    void forEachIntersecting(int from, int to, Consumer<? super Interval<T>> action);
+
+    /**
+     * 将与 [from, to] 相交的区间的值写入调用方提供的缓冲区。
+     * <p>
+     * 缓冲区不足时只写入前 {@code buffer.length} 个值，但返回值始终是相交区间的总数，
+     * 调用方可据此扩容后重新查询。
+     *
+     * @param from   查询范围的起始点（包含）。
+     * @param to     查询范围的结束点（包含）。
+     * @param buffer 接收结果的缓冲区。
+     * @return 相交区间的总数。
+     * @throws IllegalArgumentException 如果 from 大于 to。
+     */
+    int getIntersecting(int from, int to, T[] buffer);
+}
@@ -0,0 +1,31 @@
+package gloomcore.math.interval;
+
+/**
+ * 代表一个不可变的 long 整数区间 [start, end]，并关联一个泛型值。
+ * <p>
+ * 这是 {@link Interval} 的 long 版本，适用于纪元毫秒时间戳等超出 int 范围的键，
+ * 例如将时间窗口映射到赛季、活动或价格表。
+ * 该类是线程安全的。
+ *
+ * @param start 区间的起始点（包含）。
+ * @param end   区间的结束点（包含）。
+ * @param value 与该区间关联的数据。
+ * @param <T>   关联数据的类型。
+ */
+public record LongInterval<T>(long start, long end, T value) {
+    public LongInterval {
+        if (start > end) {
+            throw new IllegalArgumentException("Interval start cannot be greater than end.");
+        }
+    }
+
+    /**
+     * 检查给定的点是否位于此区间内（包含边界）。
+     *
+     * @param point 要检查的整数点。
+     * @return 如果点在区间内，则为 true；否则为 false。
+     */
+    public boolean contains(long point) {
+        return point >= start && point <= end;
+    }
+}
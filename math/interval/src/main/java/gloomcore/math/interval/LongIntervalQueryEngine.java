@@ -0,0 +1,46 @@
+package gloomcore.math.interval;
+
+/**
+ * 定义了所有 long 整数区间查询引擎必须实现的公共接口，是 {@link IntervalQueryEngine} 的 long 版本。
+ * <p>
+ * 该接口的核心功能是将一个 long 整数点（例如纪元毫秒时间戳）映射到一个包含它的区间，并检索与该区间关联的数据。
+ * 实现类可以是动态的（可修改）或静态的（只读优化）。
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public interface LongIntervalQueryEngine<T> {
+
+    /**
+     * 根据一个整数点，查找并返回其所在区间关联的值。
+     *
+     * @param point 要查询的整数点。
+     * @return 如果找到匹配的区间，则返回其关联的值；否则返回 null。
+     */
+    T getValue(long point);
+
+    /**
+     * 根据一个整数点，查找并返回其所在的完整 {@link LongInterval} 对象。
+     *
+     * @param point 要查询的整数点。
+     * @return 如果找到匹配的区间，则返回该 {@code LongInterval} 对象；否则返回 null。
+     */
+    LongInterval<T> getInterval(long point);
+
+    /**
+     * 批量查询一组整数点，将每个点所在区间关联的值写入 {@code out} 的对应位置。
+     * <p>
+     * 默认实现逐个调用 {@link #getValue(long)}，静态引擎会针对有序输入与乱序输入分别覆盖此方法。
+     *
+     * @param points 要查询的整数点。
+     * @param out    接收结果的数组，{@code out[i]} 对应 {@code points[i]}，未命中时写入 null。
+     * @throws IllegalArgumentException 如果 {@code out} 的长度小于 {@code points} 的长度。
+     */
+    default void getValues(long[] points, T[] out) {
+        if (out.length < points.length) {
+            throw new IllegalArgumentException("Output array is shorter than points array.");
+        }
+        for (int i = 0; i < points.length; i++) {
+            out[i] = getValue(points[i]);
+        }
+    }
+}
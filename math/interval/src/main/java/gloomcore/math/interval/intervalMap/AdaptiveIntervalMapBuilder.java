@@ -0,0 +1,186 @@
+package gloomcore.math.interval.intervalMap;
+
+import gloomcore.math.interval.Interval;
+import gloomcore.math.interval.IntervalQueryEngine;
+
+/**
+ * 根据已收集区间的分布自动选择静态查询引擎的构建器。
+ * <p>
+ * 选择过程会统计区间数量 n、整数总跨度 M 以及起点在各个桶中的分布：
+ * <ol>
+ *   <li>在内存预算内，为 {@link IndexedStaticIntervalMap} 选择一个块大小 B：
+ *   不小于平均间距 M / n（更小的桶不会缩短扫描），且索引大小 4 * (M / B + 1) 字节不超过预算。</li>
+ *   <li>如果该块大小下单个桶内的起点数量不超过 {@value #MAX_INTERVALS_PER_BLOCK}，即分布足够均匀，
+ *   则选择分桶索引引擎。</li>
+ *   <li>否则（数据稀疏以致索引超出预算，或分布聚集以致桶内扫描过长），
+ *   区间数量较少时选择 {@link PrimitiveIntervalMap}，较多时选择缓存友好的 {@link EytzingerIntervalMap}。</li>
+ * </ol>
+ * 每次选择都会生成一个 {@link Selection}，说明所选引擎、块大小、估算的索引内存以及原因。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * AdaptiveIntervalMapBuilder<String> builder = new AdaptiveIntervalMapBuilder<String>()
+ *         .memoryBudget(256 * 1024)
+ *         .put(0, 99, "bronze")
+ *         .put(100, 499, "silver");
+ * IntervalQueryEngine<String> engine = builder.build();
+ * System.out.println(builder.select().reason());
+ * }</pre>
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public class AdaptiveIntervalMapBuilder<T> extends StaticIntervalMapBuilder<T, AdaptiveIntervalMapBuilder<T>> {
+
+    /**
+     * 默认的索引内存预算: 1 MiB。
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 1 << 20;
+    /**
+     * 选择分桶索引时，单个桶内允许的最大起点数量。
+     */
+    public static final int MAX_INTERVALS_PER_BLOCK = 4;
+    /**
+     * 区间数量达到该值时，回退引擎由 {@link PrimitiveIntervalMap} 改为 {@link EytzingerIntervalMap}。
+     */
+    public static final int EYTZINGER_THRESHOLD = 1 << 12;
+
+    private static final int MAX_BLOCK_SHIFT = 30;
+
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    /**
+     * 设置分桶索引允许占用的最大内存。
+     *
+     * @param bytes 字节数；为 0 时永不选择分桶索引。
+     * @return Builder 实例，用于链式调用。
+     * @throws IllegalArgumentException 如果 bytes 为负数。
+     */
+    public AdaptiveIntervalMapBuilder<T> memoryBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Memory budget cannot be negative.");
+        }
+        this.memoryBudget = bytes;
+        return this;
+    }
+
+    /**
+     * 分析当前已收集的区间并给出引擎选择，不构建引擎。
+     *
+     * @return 选择结果及其原因。
+     */
+    public Selection select() {
+        sortIntervals();
+        final int count = intervals.size();
+        if (count == 0) {
+            return new Selection(Engine.PRIMITIVE, 0, 0, 0, 0, "No intervals; using the primitive engine.");
+        }
+        final int min = intervals.get(0).start();
+        int max = intervals.get(0).end();
+        for (Interval<T> interval : intervals) {
+            if (interval.end() > max) max = interval.end();
+        }
+        final long span = (long) max - min + 1;
+        final String fallbackReason;
+
+        final long maxEntries = memoryBudget / Integer.BYTES;
+        int budgetShift = -1;
+        for (int shift = 0; shift <= MAX_BLOCK_SHIFT; shift++) {
+            if (((span - 1) >> shift) + 1 <= maxEntries) {
+                budgetShift = shift;
+                break;
+            }
+        }
+        if (budgetShift < 0) {
+            fallbackReason = "Span " + span + " needs a lookup index larger than the "
+                    + memoryBudget + "-byte budget at any block size";
+        } else {
+            final long averageGap = Math.max(1, span / count);
+            final int densityShift = Math.min(MAX_BLOCK_SHIFT, 63 - Long.numberOfLeadingZeros(averageGap));
+            final int shift = Math.max(budgetShift, densityShift);
+            final int perBlock = maxStartsPerBlock(min, shift);
+            final long indexBytes = (((span - 1) >> shift) + 1) * Integer.BYTES;
+            if (perBlock <= MAX_INTERVALS_PER_BLOCK) {
+                return new Selection(Engine.INDEXED, 1 << shift, count, span, indexBytes,
+                        count + " intervals over span " + span + " fit a " + indexBytes
+                                + "-byte lookup index with block size " + (1 << shift)
+                                + " and at most " + perBlock + " starts per block.");
+            }
+            fallbackReason = "Intervals are clustered: block size " + (1 << shift) + " within the "
+                    + memoryBudget + "-byte budget leaves up to " + perBlock + " starts in one block";
+        }
+        if (count >= EYTZINGER_THRESHOLD) {
+            return new Selection(Engine.EYTZINGER, 0, count, span, 0,
+                    fallbackReason + "; " + count + " intervals favour the cache-friendly Eytzinger layout.");
+        }
+        return new Selection(Engine.PRIMITIVE, 0, count, span, 0,
+                fallbackReason + "; " + count + " intervals are few enough for a plain binary search.");
+    }
+
+    /**
+     * @return 在块大小为 2^shift 时，单个桶内起点数量的最大值。
+     */
+    private int maxStartsPerBlock(int min, int shift) {
+        int best = 0;
+        int run = 0;
+        long currentBlock = -1;
+        for (Interval<T> interval : intervals) {
+            final long block = ((long) interval.start() - min) >> shift;
+            if (block == currentBlock) {
+                run++;
+            } else {
+                currentBlock = block;
+                run = 1;
+            }
+            if (run > best) best = run;
+        }
+        return best;
+    }
+
+    /**
+     * 按 {@link #select()} 的结果构建对应的静态查询引擎。
+     *
+     * @return 所选引擎的实例。
+     */
+    @Override
+    public IntervalQueryEngine<T> build() {
+        final Selection selection = select();
+        final StaticIntervalMapBuilder<T, ?> builder = switch (selection.engine()) {
+            case INDEXED -> new IndexedStaticIntervalMap.Builder<T>().withBlockSize(selection.blockSize());
+            case EYTZINGER -> new EytzingerIntervalMap.Builder<T>();
+            case PRIMITIVE -> new PrimitiveIntervalMap.Builder<T>();
+        };
+        builder.intervals.addAll(intervals);
+        return builder.build();
+    }
+
+    /**
+     * 可供选择的静态引擎。
+     */
+    public enum Engine {
+        /**
+         * {@link IndexedStaticIntervalMap}。
+         */
+        INDEXED,
+        /**
+         * {@link EytzingerIntervalMap}。
+         */
+        EYTZINGER,
+        /**
+         * {@link PrimitiveIntervalMap}。
+         */
+        PRIMITIVE
+    }
+
+    /**
+     * 一次引擎选择的结果。
+     *
+     * @param engine     所选引擎。
+     * @param blockSize  分桶索引的块大小；未选择 {@link Engine#INDEXED} 时为 0。
+     * @param count      区间数量。
+     * @param span       区间覆盖的整数总跨度 (maxEnd - minStart + 1)。
+     * @param indexBytes 估算的索引内存字节数；未选择 {@link Engine#INDEXED} 时为 0。
+     * @param reason     可读的选择原因。
+     */
+    public record Selection(Engine engine, int blockSize, int count, long span, long indexBytes, String reason) {
+    }
+}
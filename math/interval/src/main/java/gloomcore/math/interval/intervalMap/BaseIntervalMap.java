@@ -35,6 +35,13 @@ public class BaseIntervalMap<T> implements IntervalQueryEngine<T> {
     public void put(int start, int end, T value) {
         // ... 逻辑保持不变 ...
         if (start > end) throw new IllegalArgumentException("Interval start cannot be greater than end.");
+        // 先读取尾部区间：新区间完全落在某个已有区间内部时，头尾剩余部分来自同一个区间。
+        Map.Entry<Integer, Interval<T>> endFloorEntry = intervalsByStart.floorEntry(end);
+        Interval<T> tail = null;
+        if (endFloorEntry != null && endFloorEntry.getValue().end() > end) {
+            Interval<T> floorInterval = endFloorEntry.getValue();
+            tail = new Interval<>(end + 1, floorInterval.end(), floorInterval.value());
+        }
         Map.Entry<Integer, Interval<T>> startFloorEntry = intervalsByStart.floorEntry(start);
         if (startFloorEntry != null) {
             Interval<T> floorInterval = startFloorEntry.getValue();
@@ -44,15 +51,8 @@ public class BaseIntervalMap<T> implements IntervalQueryEngine<T> {
                     intervalsByStart.put(floorInterval.start(), new Interval<>(floorInterval.start(), start - 1, floorInterval.value()));
             }
         }
-        Map.Entry<Integer, Interval<T>> endFloorEntry = intervalsByStart.floorEntry(end);
-        if (endFloorEntry != null) {
-            Interval<T> floorInterval = endFloorEntry.getValue();
-            if (floorInterval.end() > end) {
-                intervalsByStart.remove(floorInterval.start());
-                intervalsByStart.put(end + 1, new Interval<>(end + 1, floorInterval.end(), floorInterval.value()));
-            }
-        }
         intervalsByStart.subMap(start, true, end, true).clear();
+        if (tail != null) intervalsByStart.put(end + 1, tail);
         intervalsByStart.put(start, new Interval<>(start, end, value));
     }
 
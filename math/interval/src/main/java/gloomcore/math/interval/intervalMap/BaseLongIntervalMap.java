@@ -0,0 +1,144 @@
+package gloomcore.math.interval.intervalMap;
+
+import gloomcore.math.interval.LongInterval;
+import gloomcore.math.interval.LongIntervalQueryEngine;
+
+import java.util.Arrays;
+
+/**
+ * 一个动态的、可修改的 long 区间地图实现，是 {@link BaseIntervalMap} 的 long 版本。
+ * <p>
+ * 与基于 {@link java.util.TreeMap} 的 int 版本不同，区间按起点有序地存放在原始类型数组中，
+ * 查询只做一次原始类型二分查找，不会对键进行装箱。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>查询 (getValue/getInterval): O(log n)，零分配。</li>
+ *   <li>插入/覆盖 (put): O(log n + n)，最坏情况下需要移动数组尾部。</li>
+ * </ul>
+ * <b>最佳场景:</b>
+ * 时间窗口（赛季、活动、价格表）等修改不频繁、但每次交易都需要查询的场景。
+ * 也可以用于构建和预处理需要提交给静态查询引擎的数据。
+ * <p>
+ * 该类不是线程安全的。
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public class BaseLongIntervalMap<T> implements LongIntervalQueryEngine<T> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private LongInterval<?>[] intervals = new LongInterval<?>[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * 插入一个新区间。该方法会自动处理与现有区间的重叠，新区间会覆盖所有重叠部分。
+     *
+     * @param start 区间的起始点（包含）。
+     * @param end   区间的结束点（包含）。
+     * @param value 与该区间关联的值。
+     */
+    @SuppressWarnings("unchecked")
+    public void put(long start, long end, T value) {
+        if (start > end) throw new IllegalArgumentException("Interval start cannot be greater than end.");
+        // 区间互不重叠且有序，因此终点同样有序：[low, high] 即所有与新区间重叠的区间。
+        final int floor = lastStartAtMost(start);
+        final int low = floor >= 0 && ends[floor] >= start ? floor : floor + 1;
+        final int high = lastStartAtMost(end);
+        LongInterval<T> head = null;
+        LongInterval<T> tail = null;
+        if (low <= high) {
+            if (starts[low] < start) {
+                head = new LongInterval<>(starts[low], start - 1, (T) values[low]);
+            }
+            if (ends[high] > end) {
+                tail = new LongInterval<>(end + 1, ends[high], (T) values[high]);
+            }
+        }
+        final int removed = Math.max(0, high - low + 1);
+        final int added = 1 + (head != null ? 1 : 0) + (tail != null ? 1 : 0);
+        final int newSize = size - removed + added;
+        ensureCapacity(newSize);
+        final int from = low + removed;
+        final int to = low + added;
+        if (from != to && from < size) {
+            System.arraycopy(starts, from, starts, to, size - from);
+            System.arraycopy(ends, from, ends, to, size - from);
+            System.arraycopy(values, from, values, to, size - from);
+            System.arraycopy(intervals, from, intervals, to, size - from);
+        }
+        int index = low;
+        if (head != null) set(index++, head);
+        set(index++, new LongInterval<>(start, end, value));
+        if (tail != null) set(index, tail);
+        if (newSize < size) {
+            Arrays.fill(values, newSize, size, null);
+            Arrays.fill(intervals, newSize, size, null);
+        }
+        size = newSize;
+    }
+
+    private void set(int index, LongInterval<T> interval) {
+        starts[index] = interval.start();
+        ends[index] = interval.end();
+        values[index] = interval.value();
+        intervals[index] = interval;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > starts.length) {
+            final int newCapacity = Math.max(capacity, starts.length + (starts.length >> 1));
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+            intervals = Arrays.copyOf(intervals, newCapacity);
+        }
+    }
+
+    /**
+     * @return 最后一个起点 {@code <= point} 的下标；不存在时返回 -1。
+     */
+    private int lastStartAtMost(long point) {
+        final long[] starts = this.starts;
+        int length = size;
+        if (length == 0 || point < starts[0]) {
+            return -1;
+        }
+        int base = 0;
+        while (length > 1) {
+            final int half = length >>> 1;
+            base = starts[base + half] <= point ? base + half : base;
+            length -= half;
+        }
+        return base;
+    }
+
+    private int indexOf(long point) {
+        final int index = lastStartAtMost(point);
+        return index >= 0 && point <= ends[index] ? index : -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public LongInterval<T> getInterval(long point) {
+        final int index = indexOf(point);
+        return index >= 0 ? (LongInterval<T>) intervals[index] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getValue(long point) {
+        final int index = indexOf(point);
+        return index >= 0 ? (T) values[index] : null;
+    }
+
+    /**
+     * @return 当前区间数量。
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -1,10 +1,11 @@
 package gloomcore.math.interval.intervalMap;
 
 import gloomcore.math.interval.Interval;
-import gloomcore.math.interval.IntervalQueryEngine;
+import gloomcore.math.interval.IntervalRangeQueryEngine;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.function.Consumer;
 
 /**
  * 一个只读优化的区间查询引擎，基于排序数组和二分查找算法。
@@ -20,7 +21,7 @@ import java.util.Comparator;
  *
  * @param <T> 区间关联的值的类型。
  */
-public final class BinarySearchIntervalMap<T> implements IntervalQueryEngine<T> {
+public final class BinarySearchIntervalMap<T> implements IntervalRangeQueryEngine<T> {
 
     private static final Comparator<Interval<?>> COMPARATOR = Comparator.comparingInt(Interval::start);
     private final Interval<T>[] intervals;
@@ -47,6 +48,43 @@ public final class BinarySearchIntervalMap<T> implements IntervalQueryEngine<T>
         return (interval != null) ? interval.value() : null;
     }
 
+    @Override
+    public void getValues(int[] points, T[] out) {
+        SortedIntervalRanges.checkBatch(points, out);
+        if (SortedIntervalRanges.isSorted(points)) {
+            SortedIntervalRanges.mergeValues(intervals, points, out);
+        } else {
+            SortedIntervalRanges.interleavedValues(intervals, points, out);
+        }
+    }
+
+    @Override
+    public int countIntersecting(int from, int to) {
+        SortedIntervalRanges.checkRange(from, to);
+        return Math.max(0, SortedIntervalRanges.lastStartAtMost(intervals, to) - SortedIntervalRanges.first(intervals, from) + 1);
+    }
+
+    @Override
+    public void forEachIntersecting(int from, int to, Consumer<? super Interval<T>> action) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int last = SortedIntervalRanges.lastStartAtMost(intervals, to);
+        for (int i = SortedIntervalRanges.first(intervals, from); i <= last; i++) {
+            action.accept(intervals[i]);
+        }
+    }
+
+    @Override
+    public int getIntersecting(int from, int to, T[] buffer) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int first = SortedIntervalRanges.first(intervals, from);
+        final int count = Math.max(0, SortedIntervalRanges.lastStartAtMost(intervals, to) - first + 1);
+        final int copied = Math.min(count, buffer.length);
+        for (int i = 0; i < copied; i++) {
+            buffer[i] = intervals[first + i].value();
+        }
+        return count;
+    }
+
     /**
      * {@link BinarySearchIntervalMap} 的构建器。
      */
@@ -0,0 +1,218 @@
+package gloomcore.math.interval.intervalMap;
+
+import gloomcore.math.interval.Interval;
+import gloomcore.math.interval.IntervalRangeQueryEngine;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 一个只读优化的区间查询引擎，将区间起点按 Eytzinger（广度优先）顺序存放，并使用无分支下降查找。
+ * <p>
+ * 经典二分查找的前几次访问分散在整个数组中，每一步都可能发生缓存未命中，且比较结果难以预测。
+ * Eytzinger 布局把隐式二叉搜索树按层序排列：节点 k 的子节点位于 2k 与 2k+1，
+ * 树的上层集中在数组开头并常驻缓存，越往下访问的位置也越接近，硬件预取器能够更好地跟上。
+ * 下降循环体只有一次比较和一次移位，JIT 会将其编译为无分支的条件设置指令，不存在分支预测失败。
+ * <p>
+ * 下降结束后，路径中最后一次“向右”所在的槽位即为候选区间（最后一个起点不大于查询点的区间），
+ * 可以直接由下降结果的尾部 0 位还原。终点与值同样按 Eytzinger 顺序存放，因此点查询不需要回到有序数组。
+ * 范围查询则借助槽位到有序下标的映射 (rank) 转换为有序数组上的一段连续区间。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>查询: O(log n)，零分配。对于十万级以上的区间数量，常数因子明显小于 {@link BinarySearchIntervalMap}。</li>
+ *   <li>内存: O(n)。额外保存三个长度为 n + 1 的 {@code int[]} 以及一个同样长度的 {@code Object[]}。</li>
+ *   <li>构建: O(n log n)，主要开销在排序。</li>
+ * </ul>
+ * <b>最佳场景:</b>
+ * 区间数量很大（如数十万个物品 ID 区间）、跨度稀疏以致 {@link IndexedStaticIntervalMap} 的索引过大的场景。
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public final class EytzingerIntervalMap<T> implements IntervalRangeQueryEngine<T> {
+
+    /**
+     * 按 Eytzinger 顺序排列的区间起点，下标从 1 开始，keys[0] 不使用。
+     */
+    private final int[] keys;
+    /**
+     * 与 {@link #keys} 同序的区间终点与值。
+     */
+    private final int[] ends;
+    private final Object[] values;
+    /**
+     * ranks[k] 为槽位 k 中的区间在有序数组中的下标。
+     */
+    private final int[] ranks;
+    /**
+     * 按起点排序的区间，用于范围查询。
+     */
+    private final Interval<T>[] intervals;
+
+    private EytzingerIntervalMap(Interval<T>[] intervals) {
+        final int n = intervals.length;
+        this.intervals = intervals;
+        this.keys = new int[n + 1];
+        this.ranks = new int[n + 1];
+        this.ends = new int[n + 1];
+        this.values = new Object[n + 1];
+        fill(1, 0);
+    }
+
+    /**
+     * 以中序遍历的方式将有序起点写入隐式树。
+     *
+     * @param slot 当前槽位。
+     * @param rank 下一个待写入的有序下标。
+     * @return 写入该子树后的下一个有序下标。
+     */
+    private int fill(int slot, int rank) {
+        if (slot < keys.length) {
+            rank = fill(slot << 1, rank);
+            keys[slot] = intervals[rank].start();
+            ends[slot] = intervals[rank].end();
+            values[slot] = intervals[rank].value();
+            ranks[slot] = rank;
+            rank = fill(slot << 1 | 1, rank + 1);
+        }
+        return rank;
+    }
+
+    /**
+     * @return 最后一个起点 {@code <= point} 的槽位；不存在时返回 0。
+     */
+    private int slotOf(int point) {
+        final int[] keys = this.keys;
+        final int n = keys.length - 1;
+        int k = 1;
+        while (k <= n) {
+            k = k << 1 | (keys[k] <= point ? 1 : 0);
+        }
+        // 最低位的 1 对应路径中最后一次向右，去掉它及其后的 0 即得到该节点的槽位；从未向右时结果为 0。
+        return k >>> (Integer.numberOfTrailingZeros(k) + 1);
+    }
+
+    /**
+     * @return 包含给定点的区间槽位；不存在时返回 0。
+     */
+    private int indexOf(int point) {
+        final int slot = slotOf(point);
+        return slot != 0 && point <= ends[slot] ? slot : 0;
+    }
+
+    /**
+     * @return 最后一个起点 {@code <= point} 的有序下标；不存在时返回 -1。
+     */
+    private int lastStartAtMost(int point) {
+        final int slot = slotOf(point);
+        return slot != 0 ? ranks[slot] : -1;
+    }
+
+    @Override
+    public Interval<T> getInterval(int point) {
+        final int slot = indexOf(point);
+        return slot != 0 ? intervals[ranks[slot]] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getValue(int point) {
+        final int slot = indexOf(point);
+        return slot != 0 ? (T) values[slot] : null;
+    }
+
+    /**
+     * @return 第一个终点 {@code >= from} 的有序下标；可能等于区间数量。
+     */
+    private int firstIntersecting(int from) {
+        final int slot = slotOf(from);
+        if (slot == 0) {
+            return 0;
+        }
+        return ends[slot] >= from ? ranks[slot] : ranks[slot] + 1;
+    }
+
+    /**
+     * 输入升序时在有序区间数组上归并；否则每 {@link SortedIntervalRanges#LANES} 个点为一组同步下降。
+     * 完全层内的槽位必然存在，只有最后一层需要逐点判断是否越界。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void getValues(int[] points, T[] out) {
+        SortedIntervalRanges.checkBatch(points, out);
+        if (SortedIntervalRanges.isSorted(points)) {
+            SortedIntervalRanges.mergeValues(intervals, points, out);
+            return;
+        }
+        final int[] keys = this.keys;
+        final int n = keys.length - 1;
+        // 完全层的层数，即 floor(log2(n + 1))。
+        final int fullLevels = 31 - Integer.numberOfLeadingZeros(n + 1);
+        final int[] slots = new int[SortedIntervalRanges.LANES];
+        for (int offset = 0; offset < points.length; offset += SortedIntervalRanges.LANES) {
+            final int lanes = Math.min(SortedIntervalRanges.LANES, points.length - offset);
+            Arrays.fill(slots, 1);
+            for (int level = 0; level < fullLevels; level++) {
+                for (int j = 0; j < lanes; j++) {
+                    final int k = slots[j];
+                    slots[j] = k << 1 | (keys[k] <= points[offset + j] ? 1 : 0);
+                }
+            }
+            for (int j = 0; j < lanes; j++) {
+                int k = slots[j];
+                if (k <= n) {
+                    k = k << 1 | (keys[k] <= points[offset + j] ? 1 : 0);
+                }
+                final int slot = k >>> (Integer.numberOfTrailingZeros(k) + 1);
+                out[offset + j] = slot != 0 && points[offset + j] <= ends[slot] ? (T) values[slot] : null;
+            }
+        }
+    }
+
+    @Override
+    public int countIntersecting(int from, int to) {
+        SortedIntervalRanges.checkRange(from, to);
+        return Math.max(0, lastStartAtMost(to) - firstIntersecting(from) + 1);
+    }
+
+    @Override
+    public void forEachIntersecting(int from, int to, Consumer<? super Interval<T>> action) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int last = lastStartAtMost(to);
+        for (int i = firstIntersecting(from); i <= last; i++) {
+            action.accept(intervals[i]);
+        }
+    }
+
+    @Override
+    public int getIntersecting(int from, int to, T[] buffer) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int first = firstIntersecting(from);
+        final int count = Math.max(0, lastStartAtMost(to) - first + 1);
+        final int copied = Math.min(count, buffer.length);
+        for (int i = 0; i < copied; i++) {
+            buffer[i] = intervals[first + i].value();
+        }
+        return count;
+    }
+
+    /**
+     * @return 区间数量。
+     */
+    public int size() {
+        return intervals.length;
+    }
+
+    /**
+     * {@link EytzingerIntervalMap} 的构建器。
+     */
+    public static class Builder<T> extends StaticIntervalMapBuilder<T, Builder<T>> {
+        @Override
+        public EytzingerIntervalMap<T> build() {
+            sortIntervals();
+            @SuppressWarnings("unchecked")
+            Interval<T>[] builtIntervals = intervals.toArray(new Interval[0]);
+            return new EytzingerIntervalMap<>(builtIntervals);
+        }
+    }
+}
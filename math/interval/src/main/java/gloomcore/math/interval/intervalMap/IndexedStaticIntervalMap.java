@@ -1,7 +1,9 @@
 package gloomcore.math.interval.intervalMap;
 
 import gloomcore.math.interval.Interval;
-import gloomcore.math.interval.IntervalQueryEngine;
+import gloomcore.math.interval.IntervalRangeQueryEngine;
+
+import java.util.function.Consumer;
 
 /**
  * 一个为极限查询性能设计的只读区间查询引擎，采用分桶索引（lookup table）机制。
@@ -18,7 +20,7 @@ import gloomcore.math.interval.IntervalQueryEngine;
  *
  * @param <T> 区间关联的值的类型。
  */
-public final class IndexedStaticIntervalMap<T> implements IntervalQueryEngine<T> {
+public final class IndexedStaticIntervalMap<T> implements IntervalRangeQueryEngine<T> {
 
     private final Interval<T>[] intervals;
     private final int[] lookupIndex;
@@ -35,12 +37,12 @@ public final class IndexedStaticIntervalMap<T> implements IntervalQueryEngine<T>
     @Override
     public Interval<T> getInterval(int point) {
         if (point < minPoint || intervals.length == 0) return null;
-        int blockIndex = (point - minPoint) >> blockShift;
+        long blockIndex = ((long) point - minPoint) >> blockShift;
         if (blockIndex >= lookupIndex.length) {
             Interval<T> lastInterval = intervals[intervals.length - 1];
             return lastInterval.contains(point) ? lastInterval : null;
         }
-        int searchStartIndex = lookupIndex[blockIndex];
+        int searchStartIndex = lookupIndex[(int) blockIndex];
         for (int i = searchStartIndex; i < intervals.length; i++) {
             Interval<T> current = intervals[i];
             if (current.start() > point) {
@@ -58,6 +60,48 @@ public final class IndexedStaticIntervalMap<T> implements IntervalQueryEngine<T>
         return (interval != null) ? interval.value() : null;
     }
 
+    /**
+     * 输入升序时使用归并路径；否则逐点查询，分桶索引本身已接近 O(1)。
+     */
+    @Override
+    public void getValues(int[] points, T[] out) {
+        SortedIntervalRanges.checkBatch(points, out);
+        if (SortedIntervalRanges.isSorted(points)) {
+            SortedIntervalRanges.mergeValues(intervals, points, out);
+        } else {
+            for (int i = 0; i < points.length; i++) {
+                out[i] = getValue(points[i]);
+            }
+        }
+    }
+
+    @Override
+    public int countIntersecting(int from, int to) {
+        SortedIntervalRanges.checkRange(from, to);
+        return Math.max(0, SortedIntervalRanges.lastStartAtMost(intervals, to) - SortedIntervalRanges.first(intervals, from) + 1);
+    }
+
+    @Override
+    public void forEachIntersecting(int from, int to, Consumer<? super Interval<T>> action) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int last = SortedIntervalRanges.lastStartAtMost(intervals, to);
+        for (int i = SortedIntervalRanges.first(intervals, from); i <= last; i++) {
+            action.accept(intervals[i]);
+        }
+    }
+
+    @Override
+    public int getIntersecting(int from, int to, T[] buffer) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int first = SortedIntervalRanges.first(intervals, from);
+        final int count = Math.max(0, SortedIntervalRanges.lastStartAtMost(intervals, to) - first + 1);
+        final int copied = Math.min(count, buffer.length);
+        for (int i = 0; i < copied; i++) {
+            buffer[i] = intervals[first + i].value();
+        }
+        return count;
+    }
+
     /**
      * {@link IndexedStaticIntervalMap} 的构建器。
      */
@@ -79,14 +123,14 @@ public final class IndexedStaticIntervalMap<T> implements IntervalQueryEngine<T>
             sortIntervals();
             Interval<T>[] builtIntervals = intervals.toArray(new Interval[0]);
             int min = builtIntervals[0].start();
-            int max = 0;
+            int max = builtIntervals[0].end();
             for (Interval<T> interval : builtIntervals) if (interval.end() > max) max = interval.end();
             int shift = Integer.numberOfTrailingZeros(blockSize);
-            int indexSize = ((max - min) >> shift) + 1;
+            int indexSize = (int) (((long) max - min) >> shift) + 1;
             int[] index = new int[indexSize];
             int intervalIdx = 0;
             for (int i = 0; i < indexSize; i++) {
-                int blockStartPoint = min + (i << shift);
+                int blockStartPoint = (int) (min + ((long) i << shift));
                 while (intervalIdx < builtIntervals.length - 1 && builtIntervals[intervalIdx].start() < blockStartPoint)
                     intervalIdx++;
                 while (intervalIdx > 0 && builtIntervals[intervalIdx].start() > blockStartPoint) intervalIdx--;
@@ -0,0 +1,459 @@
+package gloomcore.math.interval.intervalMap;
+
+import gloomcore.math.interval.Interval;
+import gloomcore.math.interval.IntervalQueryEngine;
+import gloomcore.math.interval.IntervalRangeQueryEngine;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 一个支持区间重叠的只读查询引擎，基于扁平化的中心区间树 (centered interval tree)。
+ * <p>
+ * 每个节点选取其区间端点的中位数作为中心点，保存所有跨越中心点的区间，并分别按起点升序、终点降序排列；
+ * 完全位于中心点左侧或右侧的区间递归地放入左右子树。查询沿着唯一一条根到叶的路径下降，
+ * 在每个节点上只扫描确实包含查询点的前缀，因此找到全部 k 个匹配区间的开销为 O(log n + k)。
+ * 所有节点数据都存放在原始类型数组中，查询过程不产生任何分配。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>查询 (forEachContaining/getAll/count): O(log n + k)，零分配。</li>
+ *   <li>范围相交查询: O(log n + k)，零分配。</li>
+ *   <li>内存: O(n)。</li>
+ *   <li>构建: O(n log² n)。</li>
+ * </ul>
+ * <b>最佳场景:</b>
+ * 区间可能互相重叠，并且需要获取包含某个点的所有区间，例如按等级区间叠加的增益、重叠的保护区域。
+ * <p>
+ * 作为 {@link IntervalQueryEngine} 使用时，{@link #getInterval(int)} 返回包含该点的区间中起点最大
+ * （即嵌套最深）的一个；起点相同时返回最先添加的那个。
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public final class IntervalTree<T> implements IntervalRangeQueryEngine<T> {
+
+    private final Interval<T>[] intervals;
+    private final Object[] values;
+    private final int root;
+    private final int[] centers;
+    private final int[] leftChildren;
+    private final int[] rightChildren;
+    private final int[] nodeOffsets;
+    private final int[] nodeCounts;
+    /**
+     * 各节点的区间下标按起点升序排列，节点 i 占据 [nodeOffsets[i], nodeOffsets[i] + nodeCounts[i])。
+     */
+    private final int[] byStart;
+    private final int[] startsByStart;
+    /**
+     * 各节点的区间下标按终点降序排列，布局与 {@link #byStart} 相同。
+     */
+    private final int[] byEnd;
+    private final int[] endsByEnd;
+
+    private IntervalTree(Interval<T>[] intervals) {
+        final int n = intervals.length;
+        this.intervals = intervals;
+        this.values = new Object[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = intervals[i].value();
+        }
+        this.centers = new int[n];
+        this.leftChildren = new int[n];
+        this.rightChildren = new int[n];
+        this.nodeOffsets = new int[n];
+        this.nodeCounts = new int[n];
+        this.byStart = new int[n];
+        this.startsByStart = new int[n];
+        this.byEnd = new int[n];
+        this.endsByEnd = new int[n];
+        final int[] all = new int[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = i;
+        }
+        final int[] counters = new int[2];
+        this.root = build(all, n, counters);
+    }
+
+    /**
+     * 递归构建子树。
+     *
+     * @param members  属于该子树的区间下标（已按起点升序）。
+     * @param count    members 中的有效元素个数。
+     * @param counters [0] 为已分配的节点数，[1] 为已使用的节点区间槽位数。
+     * @return 子树根节点编号；子树为空时返回 -1。
+     */
+    private int build(int[] members, int count, int[] counters) {
+        if (count == 0) {
+            return -1;
+        }
+        final int[] endpoints = new int[count * 2];
+        for (int i = 0; i < count; i++) {
+            endpoints[2 * i] = intervals[members[i]].start();
+            endpoints[2 * i + 1] = intervals[members[i]].end();
+        }
+        Arrays.sort(endpoints);
+        final int center = endpoints[count];
+
+        final int[] left = new int[count];
+        final int[] right = new int[count];
+        int leftCount = 0;
+        int rightCount = 0;
+        final int node = counters[0]++;
+        final int offset = counters[1];
+        int nodeCount = 0;
+        for (int i = 0; i < count; i++) {
+            final Interval<T> interval = intervals[members[i]];
+            if (interval.end() < center) {
+                left[leftCount++] = members[i];
+            } else if (interval.start() > center) {
+                right[rightCount++] = members[i];
+            } else {
+                // members 按起点升序，因此 byStart 段天然有序。
+                byStart[offset + nodeCount] = members[i];
+                startsByStart[offset + nodeCount] = interval.start();
+                nodeCount++;
+            }
+        }
+        counters[1] += nodeCount;
+
+        final Integer[] sortedByEnd = new Integer[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            sortedByEnd[i] = byStart[offset + i];
+        }
+        // 稳定排序：终点相同时保持起点（及添加）顺序。
+        Arrays.sort(sortedByEnd, (a, b) -> Integer.compare(intervals[b].end(), intervals[a].end()));
+        for (int i = 0; i < nodeCount; i++) {
+            byEnd[offset + i] = sortedByEnd[i];
+            endsByEnd[offset + i] = intervals[sortedByEnd[i]].end();
+        }
+
+        centers[node] = center;
+        nodeOffsets[node] = offset;
+        nodeCounts[node] = nodeCount;
+        leftChildren[node] = build(left, leftCount, counters);
+        rightChildren[node] = build(right, rightCount, counters);
+        return node;
+    }
+
+    /**
+     * 对每个包含给定点的区间的值调用一次 {@code action}。调用顺序不作保证。
+     *
+     * @param point  要查询的整数点。
+     * @param action 对每个匹配值执行的操作。
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachContaining(int point, Consumer<? super T> action) {
+        int node = root;
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (point < center) {
+                for (int i = offset; i < end && startsByStart[i] <= point; i++) {
+                    action.accept((T) values[byStart[i]]);
+                }
+                node = leftChildren[node];
+            } else if (point > center) {
+                for (int i = offset; i < end && endsByEnd[i] >= point; i++) {
+                    action.accept((T) values[byEnd[i]]);
+                }
+                node = rightChildren[node];
+            } else {
+                for (int i = offset; i < end; i++) {
+                    action.accept((T) values[byStart[i]]);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 对每个包含给定点的完整区间调用一次 {@code action}。调用顺序不作保证。
+     *
+     * @param point  要查询的整数点。
+     * @param action 对每个匹配区间执行的操作。
+     */
+    public void forEachIntervalContaining(int point, Consumer<? super Interval<T>> action) {
+        int node = root;
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (point < center) {
+                for (int i = offset; i < end && startsByStart[i] <= point; i++) {
+                    action.accept(intervals[byStart[i]]);
+                }
+                node = leftChildren[node];
+            } else if (point > center) {
+                for (int i = offset; i < end && endsByEnd[i] >= point; i++) {
+                    action.accept(intervals[byEnd[i]]);
+                }
+                node = rightChildren[node];
+            } else {
+                for (int i = offset; i < end; i++) {
+                    action.accept(intervals[byStart[i]]);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 将包含给定点的区间的值写入调用方提供的缓冲区。
+     * <p>
+     * 缓冲区不足时只写入前 {@code buffer.length} 个匹配值，但返回值始终是匹配总数，
+     * 调用方可据此扩容后重新查询。
+     *
+     * @param point  要查询的整数点。
+     * @param buffer 接收结果的缓冲区。
+     * @return 包含该点的区间总数。
+     */
+    @SuppressWarnings("unchecked")
+    public int getAll(int point, T[] buffer) {
+        int found = 0;
+        int node = root;
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (point < center) {
+                for (int i = offset; i < end && startsByStart[i] <= point; i++, found++) {
+                    if (found < buffer.length) buffer[found] = (T) values[byStart[i]];
+                }
+                node = leftChildren[node];
+            } else if (point > center) {
+                for (int i = offset; i < end && endsByEnd[i] >= point; i++, found++) {
+                    if (found < buffer.length) buffer[found] = (T) values[byEnd[i]];
+                }
+                node = rightChildren[node];
+            } else {
+                for (int i = offset; i < end; i++, found++) {
+                    if (found < buffer.length) buffer[found] = (T) values[byStart[i]];
+                }
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param point 要查询的整数点。
+     * @return 包含该点的区间数量。
+     */
+    public int count(int point) {
+        int found = 0;
+        int node = root;
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (point < center) {
+                int i = offset;
+                while (i < end && startsByStart[i] <= point) i++;
+                found += i - offset;
+                node = leftChildren[node];
+            } else if (point > center) {
+                int i = offset;
+                while (i < end && endsByEnd[i] >= point) i++;
+                found += i - offset;
+                node = rightChildren[node];
+            } else {
+                return found + nodeCounts[node];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return 包含该点的区间中起点最大者的下标（起点相同时取最先添加的）；不存在时返回 -1。
+     */
+    private int innermost(int point) {
+        int best = -1;
+        int node = root;
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (point < center) {
+                // byStart 段按起点升序，最后一个满足条件的即为该节点的最佳候选。
+                int i = offset;
+                while (i < end && startsByStart[i] <= point) i++;
+                if (i > offset) best = better(best, firstWithStart(offset, i - 1));
+                node = leftChildren[node];
+            } else if (point > center) {
+                for (int i = offset; i < end && endsByEnd[i] >= point; i++) {
+                    best = better(best, byEnd[i]);
+                }
+                node = rightChildren[node];
+            } else {
+                if (end > offset) best = better(best, firstWithStart(offset, end - 1));
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 在 byStart 段中，返回与位置 last 起点相同的最靠前元素（即最先添加的）。
+     */
+    private int firstWithStart(int offset, int last) {
+        final int start = startsByStart[last];
+        int i = last;
+        while (i > offset && startsByStart[i - 1] == start) i--;
+        return byStart[i];
+    }
+
+    /**
+     * 下标按起点排序且排序稳定，因此下标更大意味着起点更大或同起点时更晚添加。
+     */
+    private int better(int current, int candidate) {
+        if (current == -1) return candidate;
+        final int currentStart = intervals[current].start();
+        final int candidateStart = intervals[candidate].start();
+        if (candidateStart != currentStart) {
+            return candidateStart > currentStart ? candidate : current;
+        }
+        return Math.min(current, candidate);
+    }
+
+    @Override
+    public Interval<T> getInterval(int point) {
+        final int index = innermost(point);
+        return index >= 0 ? intervals[index] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getValue(int point) {
+        final int index = innermost(point);
+        return index >= 0 ? (T) values[index] : null;
+    }
+
+    /**
+     * 范围查询 [from, to] 在中心点 c 处的分派规则：
+     * <ul>
+     *   <li>to &lt; c：节点中起点 &lt;= to 的区间（byStart 前缀）都相交，右子树不可能相交，只下降左子树。</li>
+     *   <li>from &gt; c：节点中终点 &gt;= from 的区间（byEnd 前缀）都相交，只下降右子树。</li>
+     *   <li>否则节点中所有区间都包含 c 因而相交，两侧子树都需要下降。</li>
+     * </ul>
+     * 每个节点至少保存一个区间，因此两条边界路径之外被访问的节点都会产出结果，总开销为 O(log n + k)。
+     */
+    @Override
+    public int countIntersecting(int from, int to) {
+        SortedIntervalRanges.checkRange(from, to);
+        return countIntersecting(root, from, to);
+    }
+
+    private int countIntersecting(int node, int from, int to) {
+        int found = 0;
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (to < center) {
+                int i = offset;
+                while (i < end && startsByStart[i] <= to) i++;
+                found += i - offset;
+                node = leftChildren[node];
+            } else if (from > center) {
+                int i = offset;
+                while (i < end && endsByEnd[i] >= from) i++;
+                found += i - offset;
+                node = rightChildren[node];
+            } else {
+                found += nodeCounts[node] + countIntersecting(leftChildren[node], from, to);
+                node = rightChildren[node];
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void forEachIntersecting(int from, int to, Consumer<? super Interval<T>> action) {
+        SortedIntervalRanges.checkRange(from, to);
+        forEachIntersecting(root, from, to, action);
+    }
+
+    private void forEachIntersecting(int node, int from, int to, Consumer<? super Interval<T>> action) {
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (to < center) {
+                for (int i = offset; i < end && startsByStart[i] <= to; i++) {
+                    action.accept(intervals[byStart[i]]);
+                }
+                node = leftChildren[node];
+            } else if (from > center) {
+                for (int i = offset; i < end && endsByEnd[i] >= from; i++) {
+                    action.accept(intervals[byEnd[i]]);
+                }
+                node = rightChildren[node];
+            } else {
+                for (int i = offset; i < end; i++) {
+                    action.accept(intervals[byStart[i]]);
+                }
+                forEachIntersecting(leftChildren[node], from, to, action);
+                node = rightChildren[node];
+            }
+        }
+    }
+
+    @Override
+    public int getIntersecting(int from, int to, T[] buffer) {
+        SortedIntervalRanges.checkRange(from, to);
+        return getIntersecting(root, from, to, buffer, 0);
+    }
+
+    /**
+     * @param found 已找到的区间数，同时是下一个写入位置。
+     * @return 加上本子树结果后的区间总数。
+     */
+    @SuppressWarnings("unchecked")
+    private int getIntersecting(int node, int from, int to, T[] buffer, int found) {
+        while (node != -1) {
+            final int offset = nodeOffsets[node];
+            final int end = offset + nodeCounts[node];
+            final int center = centers[node];
+            if (to < center) {
+                for (int i = offset; i < end && startsByStart[i] <= to; i++, found++) {
+                    if (found < buffer.length) buffer[found] = (T) values[byStart[i]];
+                }
+                node = leftChildren[node];
+            } else if (from > center) {
+                for (int i = offset; i < end && endsByEnd[i] >= from; i++, found++) {
+                    if (found < buffer.length) buffer[found] = (T) values[byEnd[i]];
+                }
+                node = rightChildren[node];
+            } else {
+                for (int i = offset; i < end; i++, found++) {
+                    if (found < buffer.length) buffer[found] = (T) values[byStart[i]];
+                }
+                found = getIntersecting(leftChildren[node], from, to, buffer, found);
+                node = rightChildren[node];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return 区间数量。
+     */
+    public int size() {
+        return intervals.length;
+    }
+
+    /**
+     * {@link IntervalTree} 的构建器。与其他静态引擎不同，该构建器接受任意重叠的区间。
+     */
+    public static class Builder<T> extends StaticIntervalMapBuilder<T, Builder<T>> {
+        @Override
+        public IntervalTree<T> build() {
+            sortIntervals();
+            @SuppressWarnings("unchecked")
+            Interval<T>[] builtIntervals = intervals.toArray(new Interval[0]);
+            return new IntervalTree<>(builtIntervals);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package gloomcore.math.interval.intervalMap;
+
+import gloomcore.math.interval.Interval;
+import gloomcore.math.interval.IntervalRangeQueryEngine;
+
+import java.util.function.Consumer;
+
+/**
+ * 一个只读优化的区间查询引擎，采用结构数组 (structure-of-arrays) 布局与原始类型二分查找。
+ * <p>
+ * 起点与终点分别存放在连续的 {@code int[]} 中，查询时只访问原始数组，不创建探针对象，
+ * 也不经过 {@link java.util.Comparator}，查找循环体中只有一次比较与一次条件赋值，JIT 可以将其编译为无分支的条件移动。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>查询: O(log n)，零分配。{@link #getValue(int)} 只读取原始数组与值数组。</li>
+ *   <li>内存: O(n)。除区间对象外，额外保存两个 {@code int[]} 和一个 {@code Object[]}。</li>
+ *   <li>构建: O(n log n)，主要开销在排序。</li>
+ * </ul>
+ * <b>最佳场景:</b>
+ * 玩家移动时的区域、地带查询等高频、对分配敏感的“一次构建，海量查询”场景。
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public final class PrimitiveIntervalMap<T> implements IntervalRangeQueryEngine<T> {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final Object[] values;
+    private final Interval<T>[] intervals;
+
+    private PrimitiveIntervalMap(Interval<T>[] intervals) {
+        this.intervals = intervals;
+        this.starts = new int[intervals.length];
+        this.ends = new int[intervals.length];
+        this.values = new Object[intervals.length];
+        for (int i = 0; i < intervals.length; i++) {
+            starts[i] = intervals[i].start();
+            ends[i] = intervals[i].end();
+            values[i] = intervals[i].value();
+        }
+    }
+
+    /**
+     * 查找包含给定点的区间下标。
+     *
+     * @return 区间下标；不存在时返回 -1。
+     */
+    private int indexOf(int point) {
+        // 在 starts 中查找最后一个 <= point 的位置，循环次数固定为 ceil(log2(n))。
+        final int base = SortedIntervalRanges.lastStartAtMost(starts, point);
+        return base >= 0 && point <= ends[base] ? base : -1;
+    }
+
+    @Override
+    public Interval<T> getInterval(int point) {
+        final int index = indexOf(point);
+        return index >= 0 ? intervals[index] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getValue(int point) {
+        final int index = indexOf(point);
+        return index >= 0 ? (T) values[index] : null;
+    }
+
+    @Override
+    public void getValues(int[] points, T[] out) {
+        SortedIntervalRanges.checkBatch(points, out);
+        if (SortedIntervalRanges.isSorted(points)) {
+            SortedIntervalRanges.mergeValues(starts, ends, values, points, out);
+        } else {
+            SortedIntervalRanges.interleavedValues(starts, ends, values, points, out);
+        }
+    }
+
+    @Override
+    public int countIntersecting(int from, int to) {
+        SortedIntervalRanges.checkRange(from, to);
+        return Math.max(0, SortedIntervalRanges.lastStartAtMost(starts, to) - SortedIntervalRanges.first(starts, ends, from) + 1);
+    }
+
+    @Override
+    public void forEachIntersecting(int from, int to, Consumer<? super Interval<T>> action) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int last = SortedIntervalRanges.lastStartAtMost(starts, to);
+        for (int i = SortedIntervalRanges.first(starts, ends, from); i <= last; i++) {
+            action.accept(intervals[i]);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int getIntersecting(int from, int to, T[] buffer) {
+        SortedIntervalRanges.checkRange(from, to);
+        final int first = SortedIntervalRanges.first(starts, ends, from);
+        final int count = Math.max(0, SortedIntervalRanges.lastStartAtMost(starts, to) - first + 1);
+        final int copied = Math.min(count, buffer.length);
+        for (int i = 0; i < copied; i++) {
+            buffer[i] = (T) values[first + i];
+        }
+        return count;
+    }
+
+    /**
+     * @return 区间数量。
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * {@link PrimitiveIntervalMap} 的构建器。
+     */
+    public static class Builder<T> extends StaticIntervalMapBuilder<T, Builder<T>> {
+        @Override
+        public PrimitiveIntervalMap<T> build() {
+            sortIntervals();
+            @SuppressWarnings("unchecked")
+            Interval<T>[] builtIntervals = intervals.toArray(new Interval[0]);
+            return new PrimitiveIntervalMap<>(builtIntervals);
+        }
+    }
+}
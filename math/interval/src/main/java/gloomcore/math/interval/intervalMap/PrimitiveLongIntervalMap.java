@@ -0,0 +1,179 @@
+package gloomcore.math.interval.intervalMap;
+
+import gloomcore.math.interval.LongInterval;
+import gloomcore.math.interval.LongIntervalQueryEngine;
+
+import java.util.Arrays;
+
+/**
+ * 一个只读优化的 long 区间查询引擎，是 {@link PrimitiveIntervalMap} 的 long 版本，采用结构数组布局与原始类型二分查找。
+ * <p>
+ * 起点与终点分别存放在连续的 {@code long[]} 中，查询时只访问原始数组，不创建探针对象，也不装箱。
+ * 批量查询 {@link #getValues(long[], Object[])} 对有序输入使用倍增跳跃的归并，对乱序输入同步推进多个点的查找。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>查询: O(log n)，零分配。</li>
+ *   <li>内存: O(n)。除区间对象外，额外保存两个 {@code long[]} 和一个 {@code Object[]}。</li>
+ *   <li>构建: O(n log n)，主要开销在排序。</li>
+ * </ul>
+ * <b>最佳场景:</b>
+ * 以纪元毫秒时间戳查询赛季、活动窗口、价格表等“一次构建，海量查询”的场景。
+ * 时间戳的跨度通常极大，分桶索引并不适用，因此没有与 {@link IndexedStaticIntervalMap} 对应的 long 版本。
+ *
+ * @param <T> 区间关联的值的类型。
+ */
+public final class PrimitiveLongIntervalMap<T> implements LongIntervalQueryEngine<T> {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final Object[] values;
+    private final LongInterval<T>[] intervals;
+
+    private PrimitiveLongIntervalMap(LongInterval<T>[] intervals) {
+        this.intervals = intervals;
+        this.starts = new long[intervals.length];
+        this.ends = new long[intervals.length];
+        this.values = new Object[intervals.length];
+        for (int i = 0; i < intervals.length; i++) {
+            starts[i] = intervals[i].start();
+            ends[i] = intervals[i].end();
+            values[i] = intervals[i].value();
+        }
+    }
+
+    /**
+     * 查找包含给定点的区间下标。
+     *
+     * @return 区间下标；不存在时返回 -1。
+     */
+    private int indexOf(long point) {
+        final long[] starts = this.starts;
+        int length = starts.length;
+        if (length == 0 || point < starts[0]) {
+            return -1;
+        }
+        // 在 starts 中查找最后一个 <= point 的位置，循环次数固定为 ceil(log2(n))。
+        int base = 0;
+        while (length > 1) {
+            final int half = length >>> 1;
+            base = starts[base + half] <= point ? base + half : base;
+            length -= half;
+        }
+        return point <= ends[base] ? base : -1;
+    }
+
+    @Override
+    public LongInterval<T> getInterval(long point) {
+        final int index = indexOf(point);
+        return index >= 0 ? intervals[index] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getValue(long point) {
+        final int index = indexOf(point);
+        return index >= 0 ? (T) values[index] : null;
+    }
+
+    @Override
+    public void getValues(long[] points, T[] out) {
+        if (out.length < points.length) {
+            throw new IllegalArgumentException("Output array is shorter than points array.");
+        }
+        boolean sorted = true;
+        for (int i = 1; i < points.length && sorted; i++) {
+            sorted = points[i - 1] <= points[i];
+        }
+        if (sorted) {
+            mergeValues(points, out);
+        } else {
+            interleavedValues(points, out);
+        }
+    }
+
+    /**
+     * 对升序的 points 执行归并查询，每次从上一个结果向后倍增跳跃，再在最后一跳内二分。
+     */
+    @SuppressWarnings("unchecked")
+    private void mergeValues(long[] points, T[] out) {
+        final int n = starts.length;
+        int index = -1;
+        for (int i = 0; i < points.length; i++) {
+            final long point = points[i];
+            if (index + 1 < n && starts[index + 1] <= point) {
+                // 不变式: starts[low] <= point，且 high == n 或 starts[high] > point。
+                int low = index + 1;
+                int step = 1;
+                int high = low + step;
+                while (high < n && starts[high] <= point) {
+                    low = high;
+                    step <<= 1;
+                    high = low + step;
+                }
+                if (high > n) high = n;
+                while (high - low > 1) {
+                    final int mid = (low + high) >>> 1;
+                    if (starts[mid] <= point) {
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+                index = low;
+            }
+            out[i] = index >= 0 && point <= ends[index] ? (T) values[index] : null;
+        }
+    }
+
+    /**
+     * 对任意顺序的 points 每 {@link SortedIntervalRanges#LANES} 个为一组同步推进无分支二分查找。
+     */
+    @SuppressWarnings("unchecked")
+    private void interleavedValues(long[] points, T[] out) {
+        final int n = starts.length;
+        if (n == 0) {
+            Arrays.fill(out, 0, points.length, null);
+            return;
+        }
+        final int[] bases = new int[SortedIntervalRanges.LANES];
+        for (int offset = 0; offset < points.length; offset += SortedIntervalRanges.LANES) {
+            final int lanes = Math.min(SortedIntervalRanges.LANES, points.length - offset);
+            Arrays.fill(bases, 0);
+            int length = n;
+            while (length > 1) {
+                final int half = length >>> 1;
+                for (int j = 0; j < lanes; j++) {
+                    final int base = bases[j];
+                    bases[j] = starts[base + half] <= points[offset + j] ? base + half : base;
+                }
+                length -= half;
+            }
+            for (int j = 0; j < lanes; j++) {
+                final long point = points[offset + j];
+                final int base = bases[j];
+                out[offset + j] = starts[base] <= point && point <= ends[base] ? (T) values[base] : null;
+            }
+        }
+    }
+
+    /**
+     * @return 区间数量。
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * {@link PrimitiveLongIntervalMap} 的构建器。
+     */
+    public static class Builder<T> extends StaticLongIntervalMapBuilder<T, Builder<T>> {
+        @Override
+        public PrimitiveLongIntervalMap<T> build() {
+            sortIntervals();
+            @SuppressWarnings("unchecked")
+            LongInterval<T>[] builtIntervals = intervals.toArray(new LongInterval[0]);
+            return new PrimitiveLongIntervalMap<>(builtIntervals);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package gloomcore.math.interval.intervalMap;
+
+import gloomcore.math.interval.Interval;
+
+import java.util.Arrays;
+
+/**
+ * 在按起点排序、互不重叠的区间数组上进行查找的工具方法。
+ * <p>
+ * 由于区间互不重叠且按起点排序，它们的终点同样有序，与 [from, to] 相交的区间在数组中必然是连续的一段
+ * [{@link #first}, {@link #lastStartAtMost}]，两次二分查找即可确定。
+ * <p>
+ * 批量点查询提供两条路径：输入升序时使用倍增跳跃的归并 ({@code merge*})，
+ * 否则每 {@link #LANES} 个点为一组同步推进无分支二分查找 ({@code interleaved*})，
+ * 组内各点的数组访问互不依赖，CPU 可以同时发出多个缓存未命中请求。
+ */
+final class SortedIntervalRanges {
+
+    /**
+     * 交错查找时同时推进的点数。
+     */
+    static final int LANES = 8;
+
+    private SortedIntervalRanges() {
+    }
+
+    static void checkRange(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Range from cannot be greater than to.");
+        }
+    }
+
+    /**
+     * @return 最后一个起点 {@code <= point} 的区间下标；不存在时返回 -1。
+     */
+    static int lastStartAtMost(Interval<?>[] intervals, int point) {
+        int low = 0;
+        int high = intervals.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (intervals[mid].start() <= point) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * @return 最后一个起点 {@code <= point} 的下标；不存在时返回 -1。
+     */
+    static int lastStartAtMost(int[] starts, int point) {
+        int length = starts.length;
+        if (length == 0 || point < starts[0]) {
+            return -1;
+        }
+        int base = 0;
+        while (length > 1) {
+            final int half = length >>> 1;
+            base = starts[base + half] <= point ? base + half : base;
+            length -= half;
+        }
+        return base;
+    }
+
+    static void checkBatch(int[] points, Object[] out) {
+        if (out.length < points.length) {
+            throw new IllegalArgumentException("Output array is shorter than points array.");
+        }
+    }
+
+    /**
+     * @return 如果 points 按非降序排列则为 true。
+     */
+    static boolean isSorted(int[] points) {
+        for (int i = 1; i < points.length; i++) {
+            if (points[i - 1] > points[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 对升序的 points 执行归并查询。每次从上一个结果向后倍增跳跃，再在最后一跳内二分，
+     * 因此总开销为 O(m log(n / m) + m)，点密集时退化为线性归并，点稀疏时接近逐点二分。
+     */
+    static void mergeValues(int[] starts, int[] ends, Object[] values, int[] points, Object[] out) {
+        final int n = starts.length;
+        int index = -1;
+        for (int i = 0; i < points.length; i++) {
+            final int point = points[i];
+            if (index + 1 < n && starts[index + 1] <= point) {
+                // 不变式: starts[low] <= point，且 high == n 或 starts[high] > point。
+                int low = index + 1;
+                int step = 1;
+                int high = low + step;
+                while (high < n && starts[high] <= point) {
+                    low = high;
+                    step <<= 1;
+                    high = low + step;
+                }
+                if (high > n) high = n;
+                while (high - low > 1) {
+                    final int mid = (low + high) >>> 1;
+                    if (starts[mid] <= point) {
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+                index = low;
+            }
+            out[i] = index >= 0 && point <= ends[index] ? values[index] : null;
+        }
+    }
+
+    /**
+     * {@link #mergeValues(int[], int[], Object[], int[], Object[])} 的 {@link Interval} 数组版本。
+     */
+    static <T> void mergeValues(Interval<T>[] intervals, int[] points, T[] out) {
+        final int n = intervals.length;
+        int index = -1;
+        for (int i = 0; i < points.length; i++) {
+            final int point = points[i];
+            if (index + 1 < n && intervals[index + 1].start() <= point) {
+                int low = index + 1;
+                int step = 1;
+                int high = low + step;
+                while (high < n && intervals[high].start() <= point) {
+                    low = high;
+                    step <<= 1;
+                    high = low + step;
+                }
+                if (high > n) high = n;
+                while (high - low > 1) {
+                    final int mid = (low + high) >>> 1;
+                    if (intervals[mid].start() <= point) {
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+                index = low;
+            }
+            out[i] = index >= 0 && point <= intervals[index].end() ? intervals[index].value() : null;
+        }
+    }
+
+    /**
+     * 对任意顺序的 points 执行交错查询。组内所有点共享相同的剩余长度，循环次数固定为 ceil(log2(n))。
+     */
+    static void interleavedValues(int[] starts, int[] ends, Object[] values, int[] points, Object[] out) {
+        final int n = starts.length;
+        if (n == 0) {
+            Arrays.fill(out, 0, points.length, null);
+            return;
+        }
+        final int[] bases = new int[LANES];
+        for (int offset = 0; offset < points.length; offset += LANES) {
+            final int lanes = Math.min(LANES, points.length - offset);
+            Arrays.fill(bases, 0);
+            int length = n;
+            while (length > 1) {
+                final int half = length >>> 1;
+                for (int j = 0; j < lanes; j++) {
+                    final int base = bases[j];
+                    bases[j] = starts[base + half] <= points[offset + j] ? base + half : base;
+                }
+                length -= half;
+            }
+            for (int j = 0; j < lanes; j++) {
+                final int point = points[offset + j];
+                final int base = bases[j];
+                out[offset + j] = starts[base] <= point && point <= ends[base] ? values[base] : null;
+            }
+        }
+    }
+
+    /**
+     * {@link #interleavedValues(int[], int[], Object[], int[], Object[])} 的 {@link Interval} 数组版本。
+     */
+    static <T> void interleavedValues(Interval<T>[] intervals, int[] points, T[] out) {
+        final int n = intervals.length;
+        if (n == 0) {
+            Arrays.fill(out, 0, points.length, null);
+            return;
+        }
+        final int[] bases = new int[LANES];
+        for (int offset = 0; offset < points.length; offset += LANES) {
+            final int lanes = Math.min(LANES, points.length - offset);
+            Arrays.fill(bases, 0);
+            int length = n;
+            while (length > 1) {
+                final int half = length >>> 1;
+                for (int j = 0; j < lanes; j++) {
+                    final int base = bases[j];
+                    bases[j] = intervals[base + half].start() <= points[offset + j] ? base + half : base;
+                }
+                length -= half;
+            }
+            for (int j = 0; j < lanes; j++) {
+                final Interval<T> interval = intervals[bases[j]];
+                out[offset + j] = interval.contains(points[offset + j]) ? interval.value() : null;
+            }
+        }
+    }
+
+    /**
+     * @return 第一个与 [from, +∞) 相交（终点 {@code >= from}）的区间下标；可能等于数组长度。
+     */
+    static int first(Interval<?>[] intervals, int from) {
+        final int index = lastStartAtMost(intervals, from);
+        if (index < 0) {
+            return 0;
+        }
+        return intervals[index].end() >= from ? index : index + 1;
+    }
+
+    /**
+     * @return 第一个终点 {@code >= from} 的下标；可能等于数组长度。
+     */
+    static int first(int[] starts, int[] ends, int from) {
+        final int index = lastStartAtMost(starts, from);
+        if (index < 0) {
+            return 0;
+        }
+        return ends[index] >= from ? index : index + 1;
+    }
+}
@@ -1,21 +1,62 @@
 package gloomcore.math.random;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
+/**
+ * 基于 Vose 别名方法 (Alias Method) 的加权随机索引采样器。
+ * <p>
+ * 构建开销为 O(n)，之后每次采样为 O(1)：一次列选择加一次概率比较。
+ * 实例构建完成后不可变，可安全地在多线程间共享。
+ * <p>
+ * 所有采样方法都提供接受 {@link RandomGenerator} 的重载，以便使用带种子的生成器复现结果；
+ * 未指定生成器时使用 {@link ThreadLocalRandom}。
+ */
 public final class AliasMethodRandom {
     private final int[] alias;
     private final double[] probability;
 
+    /**
+     * 使用装箱的权重列表构建采样器。
+     *
+     * @param originalWeights 各索引的权重，必须非负且总和为正。
+     * @throws IllegalArgumentException 如果列表为空、包含负数权重或总和不为正。
+     */
     public AliasMethodRandom(List<Double> originalWeights) {
-        if (originalWeights == null || originalWeights.isEmpty()) {
+        this(unbox(originalWeights));
+    }
+
+    /**
+     * 使用 float 权重数组构建采样器。该数组只会被读取，不会被保留。
+     *
+     * @param originalWeights 各索引的权重，必须非负且总和为正。
+     * @throws IllegalArgumentException 如果数组为空、包含负数权重或总和不为正。
+     */
+    public AliasMethodRandom(float[] originalWeights) {
+        this(widen(originalWeights));
+    }
+
+    /**
+     * 使用 double 权重数组构建采样器。该数组只会被读取，不会被保留。
+     *
+     * @param originalWeights 各索引的权重，必须非负且总和为正。
+     * @throws IllegalArgumentException 如果数组为空、包含负数权重或总和不为正。
+     */
+    public AliasMethodRandom(double[] originalWeights) {
+        if (originalWeights == null || originalWeights.length == 0) {
             throw new IllegalArgumentException("Weights list cannot be null or empty.");
         }
 
-        final int size = originalWeights.size();
+        final int size = originalWeights.length;
         this.alias = new int[size];
         this.probability = new double[size];
-        final double sum = originalWeights.stream().mapToDouble(Double::doubleValue).sum();
+        double sum = 0;
+        for (double weight : originalWeights) {
+            sum += weight;
+        }
         if (sum <= 0) {
             throw new IllegalArgumentException("Sum of weights must be positive.");
         }
@@ -27,7 +68,7 @@ public final class AliasMethodRandom {
 
         final double[] normalizedProbabilities = new double[size];
         for (int i = 0; i < size; i++) {
-            double weight = originalWeights.get(i);
+            double weight = originalWeights[i];
             if (weight < 0) {
                 throw new IllegalArgumentException("Weights must be non-negative.");
             }
@@ -72,11 +113,152 @@ public final class AliasMethodRandom {
         }
     }
 
+    private static double[] unbox(List<Double> weights) {
+        if (weights == null) {
+            return null;
+        }
+        final double[] result = new double[weights.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = weights.get(i);
+        }
+        return result;
+    }
+
+    private static double[] widen(float[] weights) {
+        if (weights == null) {
+            return null;
+        }
+        final double[] result = new double[weights.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = weights[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return 可采样的索引数量，即构建时的权重个数。
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * @param column 列索引。
+     * @return 该列保留自身的概率。
+     */
+    double probability(int column) {
+        return probability[column];
+    }
+
+    /**
+     * @param column 列索引。
+     * @return 该列未保留自身时转向的别名索引。
+     */
+    int alias(int column) {
+        return alias[column];
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 采样一个索引。
+     *
+     * @return 范围在 [0, size) 内的索引。
+     */
     public int next() {
-        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return next(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器采样一个索引。
+     *
+     * @param random 随机数来源。
+     * @return 范围在 [0, size) 内的索引。
+     */
+    public int next(RandomGenerator random) {
         final int column = random.nextInt(probability.length);
 
         return random.nextDouble() < probability[column] ? column : alias[column];
     }
 
+    /**
+     * 使用 {@link ThreadLocalRandom} 填满整个数组。
+     *
+     * @param out 用于接收采样结果的数组。
+     */
+    public void next(int[] out) {
+        next(out, 0, out.length, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器填满整个数组。
+     *
+     * @param out    用于接收采样结果的数组。
+     * @param random 随机数来源。
+     */
+    public void next(int[] out, RandomGenerator random) {
+        next(out, 0, out.length, random);
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 将 {@code len} 个采样结果写入 {@code out[off, off + len)}。
+     *
+     * @param out 用于接收采样结果的数组。
+     * @param off 起始写入位置。
+     * @param len 采样次数。
+     * @throws IndexOutOfBoundsException 如果给定区间超出数组范围。
+     */
+    public void next(int[] out, int off, int len) {
+        next(out, off, len, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器将 {@code len} 个采样结果写入 {@code out[off, off + len)}。
+     * <p>
+     * 批量采样只在循环外读取一次表字段，不产生任何对象分配。
+     *
+     * @param out    用于接收采样结果的数组。
+     * @param off    起始写入位置。
+     * @param len    采样次数。
+     * @param random 随机数来源。
+     * @throws IndexOutOfBoundsException 如果给定区间超出数组范围。
+     */
+    public void next(int[] out, int off, int len, RandomGenerator random) {
+        Objects.checkFromIndexSize(off, len, out.length);
+        final double[] probability = this.probability;
+        final int[] alias = this.alias;
+        final int size = probability.length;
+        for (int i = off, end = off + len; i < end; i++) {
+            final int column = random.nextInt(size);
+            out[i] = random.nextDouble() < probability[column] ? column : alias[column];
+        }
+    }
+
+    /**
+     * 返回一个由 {@link ThreadLocalRandom} 驱动的、包含 {@code n} 个采样结果的流。
+     *
+     * @param n 流的长度。
+     * @return 采样结果流。
+     * @throws IllegalArgumentException 如果 n 为负数。
+     */
+    public IntStream ints(long n) {
+        return ThreadLocalRandom.current().ints(n, 0, probability.length)
+                .map(column -> ThreadLocalRandom.current().nextDouble() < probability[column] ? column : alias[column]);
+    }
+
+    /**
+     * 返回一个由指定随机数生成器驱动的、包含 {@code n} 个采样结果的流。
+     * <p>
+     * 如果生成器不是线程安全的，则不应对返回的流进行并行处理。
+     *
+     * @param n      流的长度。
+     * @param random 随机数来源。
+     * @return 采样结果流。
+     * @throws IllegalArgumentException 如果 n 为负数。
+     */
+    public IntStream ints(long n, RandomGenerator random) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Stream size must be non-negative.");
+        }
+        return IntStream.generate(() -> next(random)).limit(n);
+    }
+
 }
@@ -0,0 +1,189 @@
+package gloomcore.math.random;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 预计算别名表的持久化存储，通过内存映射直接在堆外采样。
+ * <p>
+ * 表以 {@link PackedAliasMethodRandom} 的紧凑格式写入单个文件，打开时整个文件被映射为只读的
+ * {@link ByteBuffer}，采样直接读取映射内存，启动时无需重新构建，也不占用 Java 堆。
+ *
+ * <h2>文件格式（小端序）</h2>
+ * <pre>
+ * 头部   int magic ("GCAT"), int version, int tableCount, int reserved
+ * 索引   tableCount × (long offset, long columns)
+ * 数据   每张表 columns 个 long，按 8 字节对齐
+ * </pre>
+ * <b>注意:</b> 受 {@link ByteBuffer} 寻址范围限制，单个文件不能超过 2 GiB。
+ * 实例不可变，可安全地在多线程间共享。
+ */
+public final class AliasTableStore {
+    private static final int MAGIC = 0x54414347; // "GCAT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int INDEX_ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int tableCount;
+
+    private AliasTableStore(ByteBuffer buffer, int tableCount) {
+        this.buffer = buffer;
+        this.tableCount = tableCount;
+    }
+
+    /**
+     * 将一组别名表写入文件。已存在的文件会被覆盖。
+     *
+     * @param path   目标文件。
+     * @param tables 要写入的表，写入顺序即读取时的表编号。
+     * @throws IOException 如果写入失败。
+     */
+    public static void write(Path path, List<PackedAliasMethodRandom> tables) throws IOException {
+        Objects.requireNonNull(path, "path");
+        final int count = tables.size();
+        final ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            chunk.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0);
+            long offset = HEADER_BYTES + (long) count * INDEX_ENTRY_BYTES;
+            for (PackedAliasMethodRandom table : tables) {
+                flushIfFull(channel, chunk, INDEX_ENTRY_BYTES);
+                chunk.putLong(offset).putLong(table.size());
+                offset += (long) table.size() * Long.BYTES;
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Alias table store cannot exceed 2 GiB.");
+            }
+            for (PackedAliasMethodRandom table : tables) {
+                for (long entry : table.table()) {
+                    flushIfFull(channel, chunk, Long.BYTES);
+                    chunk.putLong(entry);
+                }
+            }
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        }
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer chunk, int required) throws IOException {
+        if (chunk.remaining() < required) {
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+            chunk.clear();
+        }
+    }
+
+    /**
+     * 以只读方式映射并打开一个存储文件。映射建立后文件通道即被关闭，映射内存随实例被回收而释放。
+     *
+     * @param path 存储文件。
+     * @return 打开的存储。
+     * @throws IOException              如果读取失败。
+     * @throws IllegalArgumentException 如果文件格式不正确。
+     */
+    public static AliasTableStore open(Path path) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Alias table store cannot exceed 2 GiB.");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an alias table store: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported alias table store version: " + buffer.getInt(4));
+        }
+        final int count = buffer.getInt(8);
+        if (count < 0 || HEADER_BYTES + (long) count * INDEX_ENTRY_BYTES > buffer.capacity()) {
+            throw new IllegalArgumentException("Corrupted alias table store index: " + path);
+        }
+        for (int table = 0; table < count; table++) {
+            final int position = HEADER_BYTES + table * INDEX_ENTRY_BYTES;
+            final long offset = buffer.getLong(position);
+            final long columns = buffer.getLong(position + 8);
+            if (columns <= 0 || (offset & 7) != 0 || offset + columns * Long.BYTES > buffer.capacity()) {
+                throw new IllegalArgumentException("Corrupted alias table store entry " + table + ": " + path);
+            }
+        }
+        return new AliasTableStore(buffer, count);
+    }
+
+    /**
+     * @return 存储中的表数量。
+     */
+    public int tableCount() {
+        return tableCount;
+    }
+
+    /**
+     * @param table 表编号。
+     * @return 该表可采样的索引数量。
+     */
+    public int size(int table) {
+        return (int) buffer.getLong(indexPosition(table) + 8);
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 从指定表中采样一个索引。
+     *
+     * @param table 表编号。
+     * @return 范围在 [0, size(table)) 内的索引。
+     */
+    public int next(int table) {
+        return next(table, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器从指定表中采样一个索引，直接读取映射内存，不产生分配。
+     *
+     * @param table  表编号。
+     * @param random 随机数来源。
+     * @return 范围在 [0, size(table)) 内的索引。
+     */
+    public int next(int table, RandomGenerator random) {
+        final ByteBuffer buffer = this.buffer;
+        final int position = indexPosition(table);
+        final int offset = (int) buffer.getLong(position);
+        final long columns = buffer.getLong(position + 8);
+        final long bits = random.nextLong();
+        final int column = (int) (((bits >>> 32) * columns) >>> 32);
+        final long entry = buffer.getLong(offset + (column << 3));
+        return (bits & 0xFFFF_FFFFL) < (entry >>> 32) ? column : (int) entry;
+    }
+
+    /**
+     * 将指定表复制到堆上，适合需要极端热点采样的少数表。
+     *
+     * @param table 表编号。
+     * @return 堆上的 {@link PackedAliasMethodRandom} 副本。
+     */
+    public PackedAliasMethodRandom load(int table) {
+        final int position = indexPosition(table);
+        final int offset = (int) buffer.getLong(position);
+        final long[] entries = new long[(int) buffer.getLong(position + 8)];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = buffer.getLong(offset + (i << 3));
+        }
+        return new PackedAliasMethodRandom(entries);
+    }
+
+    private int indexPosition(int table) {
+        return HEADER_BYTES + Objects.checkIndex(table, tableCount) * INDEX_ENTRY_BYTES;
+    }
+}
@@ -0,0 +1,196 @@
+package gloomcore.math.random;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 加权无放回抽样器：一次抽取 k 个互不相同的索引。
+ * <p>
+ * 实现基于 Efraimidis–Spirakis 的指数键方法及其 A-ExpJ（指数跳跃）变体：
+ * 每个索引的键为 {@code u^(1/w)}，保留键最大的 k 个即为一次无放回抽样。
+ * 堆填满后通过指数跳跃直接跳过不可能入选的索引，随机数消耗降为 O(k log(n/k))。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>抽样: O(n + k log k)，与权重分布无关，不会像“抽中重复就重抽”那样在少数权重占优时退化。</li>
+ *   <li>内存: 结果直接写入调用方提供的 {@code int[]}，键值使用每线程复用的缓冲区，稳定状态下不产生分配。</li>
+ * </ul>
+ * 实例不可变，可安全地在多线程间共享。
+ */
+public final class DistinctWeightedRandom {
+    private static final ThreadLocal<double[]> KEY_BUFFER = ThreadLocal.withInitial(() -> new double[16]);
+
+    private final double[] weights;
+    private final int positiveCount;
+
+    /**
+     * 使用权重数组创建抽样器。数组会被复制。
+     *
+     * @param weights 各索引的权重，必须非负。
+     * @throws IllegalArgumentException 如果数组为空或包含负数权重。
+     */
+    public DistinctWeightedRandom(double[] weights) {
+        if (weights == null || weights.length == 0) {
+            throw new IllegalArgumentException("Weights list cannot be null or empty.");
+        }
+        this.weights = weights.clone();
+        int positive = 0;
+        for (double weight : this.weights) {
+            if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("Weights must be non-negative and finite.");
+            }
+            if (weight > 0) {
+                positive++;
+            }
+        }
+        this.positiveCount = positive;
+    }
+
+    /**
+     * @return 索引总数。
+     */
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * @return 权重为正、可能被抽中的索引数量，即单次抽样能返回的最大个数。
+     */
+    public int positiveCount() {
+        return positiveCount;
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 抽取 {@code out.length} 个互不相同的索引。
+     *
+     * @param out 用于接收结果的数组。
+     * @return 实际写入的索引个数。
+     */
+    public int sample(int[] out) {
+        return sample(out, 0, out.length, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器抽取 {@code out.length} 个互不相同的索引。
+     *
+     * @param out    用于接收结果的数组。
+     * @param random 随机数来源。
+     * @return 实际写入的索引个数。
+     */
+    public int sample(int[] out, RandomGenerator random) {
+        return sample(out, 0, out.length, random);
+    }
+
+    /**
+     * 使用指定的随机数生成器抽取 {@code k} 个互不相同的索引，写入 {@code out[off, off + k)}。
+     * <p>
+     * 结果按“依次无放回抽取”的顺序排列，即 {@code out[off]} 相当于第一次抽中的索引。
+     * 当正权重索引少于 {@code k} 个时，只会写入全部正权重索引。
+     *
+     * @param out    用于接收结果的数组。
+     * @param off    起始写入位置。
+     * @param k      需要抽取的个数。
+     * @param random 随机数来源。
+     * @return 实际写入的索引个数，即 {@code min(k, positiveCount())}。
+     * @throws IndexOutOfBoundsException 如果给定区间超出数组范围。
+     */
+    public int sample(int[] out, int off, int k, RandomGenerator random) {
+        Objects.checkFromIndexSize(off, k, out.length);
+        final int count = Math.min(k, positiveCount);
+        if (count == 0) {
+            return 0;
+        }
+        double[] keys = KEY_BUFFER.get();
+        if (keys.length < count) {
+            keys = new double[Math.max(count, keys.length << 1)];
+            KEY_BUFFER.set(keys);
+        }
+
+        final double[] weights = this.weights;
+        final int n = weights.length;
+        int i = 0;
+        int heapSize = 0;
+
+        // 填充阶段：前 count 个正权重索引直接入堆，键取对数形式 log(u) / w。
+        while (heapSize < count) {
+            final double weight = weights[i];
+            if (weight > 0) {
+                siftUp(keys, out, off, heapSize++, Math.log(uniform(random)) / weight, i);
+            }
+            i++;
+        }
+
+        // 指数跳跃阶段：堆顶为当前入选门槛，累计权重越过跳跃距离的索引才有资格替换堆顶。
+        double threshold = keys[0];
+        double jump = threshold < 0 ? Math.log(uniform(random)) / threshold : Double.POSITIVE_INFINITY;
+        for (; i < n && jump != Double.POSITIVE_INFINITY; i++) {
+            final double weight = weights[i];
+            if (weight <= 0) {
+                continue;
+            }
+            jump -= weight;
+            if (jump <= 0) {
+                final double lowest = Math.exp(threshold * weight);
+                final double u = lowest + (1 - lowest) * uniform(random);
+                siftDown(keys, out, off, count, Math.log(u) / weight, i);
+                threshold = keys[0];
+                jump = threshold < 0 ? Math.log(uniform(random)) / threshold : Double.POSITIVE_INFINITY;
+            }
+        }
+
+        // 原地堆排序，使结果按键值降序排列。
+        for (int end = count - 1; end > 0; end--) {
+            final double key = keys[end];
+            final int index = out[off + end];
+            keys[end] = keys[0];
+            out[off + end] = out[off];
+            siftDown(keys, out, off, end, key, index);
+        }
+        return count;
+    }
+
+    /**
+     * @return 范围在 (0, 1] 内的均匀随机数，保证对数有限。
+     */
+    private static double uniform(RandomGenerator random) {
+        return 1.0 - random.nextDouble();
+    }
+
+    private static void siftUp(double[] keys, int[] out, int off, int position, double key, int index) {
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[position] = keys[parent];
+            out[off + position] = out[off + parent];
+            position = parent;
+        }
+        keys[position] = key;
+        out[off + position] = index;
+    }
+
+    /**
+     * 用新的键值替换堆顶并下沉，维持小顶堆。
+     */
+    private static void siftDown(double[] keys, int[] out, int off, int heapSize, double key, int index) {
+        int position = 0;
+        final int half = heapSize >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+            final int right = child + 1;
+            if (right < heapSize && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[position] = keys[child];
+            out[off + position] = out[off + child];
+            position = child;
+        }
+        keys[position] = key;
+        out[off + position] = index;
+    }
+}
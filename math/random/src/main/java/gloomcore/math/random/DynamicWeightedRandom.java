@@ -0,0 +1,221 @@
+package gloomcore.math.random;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 一个可修改权重的加权随机索引采样器，基于树状数组 (Fenwick Tree) 实现。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>修改单个权重 (setWeight/addWeight): O(log n)</li>
+ *   <li>采样 (next): O(log n)</li>
+ *   <li>构建: O(n)</li>
+ * </ul>
+ * <b>最佳场景:</b>
+ * 权重需要频繁变化（活动加成、幸运值、库存耗尽等），重建 {@link AliasMethodRandom} 的 O(n) 开销无法接受时。
+ * 当进入以读为主的阶段时，可通过 {@link #freeze()} 得到一个 O(1) 采样的不可变别名表。
+ * <p>
+ * <b>注意:</b> 该类不是线程安全的。
+ */
+public final class DynamicWeightedRandom {
+    private final double[] weights;
+    private final double[] tree;
+    private final int highestBit;
+
+    /**
+     * 创建一个所有权重均为 0 的采样器。
+     *
+     * @param size 可采样的索引数量。
+     * @throws IllegalArgumentException 如果 size 不为正数。
+     */
+    public DynamicWeightedRandom(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive.");
+        }
+        this.weights = new double[size];
+        this.tree = new double[size + 1];
+        this.highestBit = Integer.highestOneBit(size);
+    }
+
+    /**
+     * 使用初始权重创建采样器。该数组只会被读取，不会被保留。
+     *
+     * @param initialWeights 各索引的初始权重，必须非负。
+     * @throws IllegalArgumentException 如果数组为空或包含负数权重。
+     */
+    public DynamicWeightedRandom(double[] initialWeights) {
+        this(initialWeights == null ? 0 : initialWeights.length);
+        for (int i = 0; i < initialWeights.length; i++) {
+            checkWeight(initialWeights[i]);
+            weights[i] = initialWeights[i];
+        }
+        rebuild();
+    }
+
+    private static void checkWeight(double weight) {
+        if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Weights must be non-negative and finite.");
+        }
+    }
+
+    /**
+     * @return 可采样的索引数量。
+     */
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * 获取指定索引的当前权重。
+     *
+     * @param index 索引。
+     * @return 当前权重。
+     */
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * 设置指定索引的权重。
+     *
+     * @param index  索引。
+     * @param weight 新的权重，必须非负。
+     * @throws IllegalArgumentException 如果权重为负数。
+     */
+    public void setWeight(int index, double weight) {
+        checkWeight(weight);
+        final double delta = weight - weights[Objects.checkIndex(index, weights.length)];
+        weights[index] = weight;
+        propagate(index, delta);
+    }
+
+    /**
+     * 在指定索引的当前权重上增加一个增量（可以为负）。
+     *
+     * @param index 索引。
+     * @param delta 权重增量。
+     * @throws IllegalArgumentException 如果结果权重为负数。
+     */
+    public void addWeight(int index, double delta) {
+        setWeight(index, weights[Objects.checkIndex(index, weights.length)] + delta);
+    }
+
+    private void propagate(int index, double delta) {
+        final double[] tree = this.tree;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 根据当前权重重新计算整棵树，耗时 O(n)。
+     * <p>
+     * 大量增量修改后树节点中会累积浮点误差，可定期调用此方法消除误差。
+     */
+    public void rebuild() {
+        final double[] tree = this.tree;
+        System.arraycopy(weights, 0, tree, 1, weights.length);
+        for (int i = 1; i < tree.length; i++) {
+            final int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * 计算所有权重之和，耗时 O(log n)。
+     *
+     * @return 权重总和。
+     */
+    public double totalWeight() {
+        double sum = 0;
+        for (int i = weights.length; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 采样一个索引。
+     *
+     * @return 范围在 [0, size) 内的索引。
+     * @throws IllegalStateException 如果权重总和不为正。
+     */
+    public int next() {
+        return next(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器采样一个索引。
+     *
+     * @param random 随机数来源。
+     * @return 范围在 [0, size) 内的索引。
+     * @throws IllegalStateException 如果权重总和不为正。
+     */
+    public int next(RandomGenerator random) {
+        final double total = totalWeight();
+        if (!(total > 0)) {
+            throw new IllegalStateException("Sum of weights must be positive.");
+        }
+        return find(random.nextDouble() * total);
+    }
+
+    /**
+     * 使用指定的随机数生成器将 {@code len} 个采样结果写入 {@code out[off, off + len)}。
+     * 权重总和只计算一次。
+     *
+     * @param out    用于接收采样结果的数组。
+     * @param off    起始写入位置。
+     * @param len    采样次数。
+     * @param random 随机数来源。
+     * @throws IllegalStateException 如果权重总和不为正。
+     */
+    public void next(int[] out, int off, int len, RandomGenerator random) {
+        Objects.checkFromIndexSize(off, len, out.length);
+        final double total = totalWeight();
+        if (!(total > 0)) {
+            throw new IllegalStateException("Sum of weights must be positive.");
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = find(random.nextDouble() * total);
+        }
+    }
+
+    /**
+     * 在树上自顶向下查找累计权重首次超过 {@code target} 的索引。
+     */
+    private int find(double target) {
+        final double[] tree = this.tree;
+        final int size = weights.length;
+        int position = 0;
+        for (int step = highestBit; step != 0; step >>>= 1) {
+            final int next = position + step;
+            if (next <= size && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        // 浮点误差可能使结果越界或落在零权重上，向前回退到最近的正权重索引。
+        if (position >= size) {
+            position = size - 1;
+        }
+        while (position > 0 && weights[position] == 0) {
+            position--;
+        }
+        return position;
+    }
+
+    /**
+     * 以当前权重生成一个不可变的 {@link AliasMethodRandom}，用于以读为主的阶段。
+     * 之后对本采样器的修改不会影响返回的实例。
+     *
+     * @return 一个新的别名表采样器。
+     * @throws IllegalArgumentException 如果权重总和不为正。
+     */
+    public AliasMethodRandom freeze() {
+        return new AliasMethodRandom(weights);
+    }
+}
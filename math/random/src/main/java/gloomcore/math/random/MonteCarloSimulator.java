@@ -0,0 +1,423 @@
+package gloomcore.math.random;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToIntFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * 用于评估掉落表期望收益的并行蒙特卡洛模拟引擎。
+ * <p>
+ * 每次试验 (trial) 调用采样器 {@code rollsPerTrial} 次，并将抽中索引对应的价值累加为该次试验的总价值。
+ * 引擎统计每个索引被抽中的次数，以及试验总价值的均值、方差、极值和分位数估计。
+ * <p>
+ * 工作按固定的二分结构拆分到 {@link ForkJoinPool} 上，每个子任务持有通过
+ * {@link RandomGenerator.SplittableGenerator#split()} 派生的独立生成器和私有的原始类型计数器，
+ * 结果也按固定顺序合并。因此对于相同的种子与参数，结果与线程数及调度顺序无关，可以逐次比较。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * AliasMethodRandom table = new AliasMethodRandom(new double[]{70, 25, 5});
+ * MonteCarloSimulator simulator = new MonteCarloSimulator.Builder(table::next, new double[]{10, 100, 2500})
+ *     .rollsPerTrial(10)
+ *     .build();
+ *
+ * MonteCarloSimulator.Report report = simulator.run(10_000_000L, 42L);
+ * double ev = report.mean();
+ * double p99 = report.percentile(0.99);
+ * }</pre>
+ * 采样器会被多个线程并发调用，但每个线程使用各自的生成器，因此它必须是无状态或线程安全的
+ * （{@link AliasMethodRandom}、{@link WeightedTable} 等不可变采样器均满足要求）。
+ */
+public final class MonteCarloSimulator {
+    private final ToIntFunction<RandomGenerator> sampler;
+    private final double[] outcomeValues;
+    private final int rollsPerTrial;
+    private final int histogramBins;
+    private final long leafTrials;
+    private final ForkJoinPool pool;
+    private final double histogramMin;
+    private final double histogramMax;
+
+    private MonteCarloSimulator(Builder builder) {
+        this.sampler = builder.sampler;
+        this.outcomeValues = builder.outcomeValues;
+        this.rollsPerTrial = builder.rollsPerTrial;
+        this.histogramBins = builder.histogramBins;
+        this.leafTrials = builder.leafTrials;
+        this.pool = builder.pool;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : outcomeValues) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        this.histogramMin = min * rollsPerTrial;
+        this.histogramMax = max * rollsPerTrial;
+    }
+
+    /**
+     * 使用 {@link SplittableRandom} 和给定种子运行模拟。
+     *
+     * @param trials 试验次数，必须为正。
+     * @param seed   随机种子，相同的种子产生相同的结果。
+     * @return 模拟报告。
+     */
+    public Report run(long trials, long seed) {
+        return run(trials, new SplittableRandom(seed));
+    }
+
+    /**
+     * 使用给定的可拆分生成器运行模拟。生成器会被拆分，其状态在调用后会发生变化。
+     *
+     * @param trials    试验次数，必须为正。
+     * @param generator 根随机数生成器。
+     * @return 模拟报告。
+     */
+    public Report run(long trials, RandomGenerator.SplittableGenerator generator) {
+        if (trials <= 0) {
+            throw new IllegalArgumentException("Trials must be positive.");
+        }
+        Objects.requireNonNull(generator, "generator");
+        final Partial partial = pool.invoke(new SimulationTask(generator, trials));
+        return new Report(partial, outcomeValues, rollsPerTrial, histogramMin, histogramMax);
+    }
+
+    private final class SimulationTask extends RecursiveTask<Partial> {
+        private final RandomGenerator.SplittableGenerator generator;
+        private final long trials;
+
+        private SimulationTask(RandomGenerator.SplittableGenerator generator, long trials) {
+            this.generator = generator;
+            this.trials = trials;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (trials <= leafTrials) {
+                return simulate();
+            }
+            // 拆分发生在 fork 之前且顺序固定，保证生成器树与调度无关。
+            final long half = trials >>> 1;
+            final SimulationTask left = new SimulationTask(generator.split(), half);
+            final SimulationTask right = new SimulationTask(generator, trials - half);
+            left.fork();
+            final Partial rightResult = right.compute();
+            final Partial leftResult = left.join();
+            leftResult.merge(rightResult);
+            return leftResult;
+        }
+
+        private Partial simulate() {
+            final ToIntFunction<RandomGenerator> sampler = MonteCarloSimulator.this.sampler;
+            final RandomGenerator generator = this.generator;
+            final double[] values = outcomeValues;
+            final int rolls = rollsPerTrial;
+            final int lastBin = histogramBins - 1;
+            final double min = histogramMin;
+            final double binScale = histogramMax > min ? histogramBins / (histogramMax - min) : 0;
+
+            final Partial partial = new Partial(values.length, histogramBins);
+            final long[] counts = partial.outcomeCounts;
+            final long[] histogram = partial.histogram;
+            double mean = 0;
+            double m2 = 0;
+            double low = Double.POSITIVE_INFINITY;
+            double high = Double.NEGATIVE_INFINITY;
+            for (long trial = 1; trial <= trials; trial++) {
+                double total = 0;
+                for (int roll = 0; roll < rolls; roll++) {
+                    final int outcome = sampler.applyAsInt(generator);
+                    counts[outcome]++;
+                    total += values[outcome];
+                }
+                final double delta = total - mean;
+                mean += delta / trial;
+                m2 += delta * (total - mean);
+                low = Math.min(low, total);
+                high = Math.max(high, total);
+                histogram[Math.min((int) ((total - min) * binScale), lastBin)]++;
+            }
+            partial.trials = trials;
+            partial.mean = mean;
+            partial.m2 = m2;
+            partial.min = low;
+            partial.max = high;
+            return partial;
+        }
+    }
+
+    /**
+     * 单个子任务的中间统计量，按 Chan 等人的并行算法合并均值与方差。
+     */
+    private static final class Partial {
+        private final long[] outcomeCounts;
+        private final long[] histogram;
+        private long trials;
+        private double mean;
+        private double m2;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private Partial(int outcomes, int bins) {
+            this.outcomeCounts = new long[outcomes];
+            this.histogram = new long[bins];
+        }
+
+        private void merge(Partial other) {
+            for (int i = 0; i < outcomeCounts.length; i++) {
+                outcomeCounts[i] += other.outcomeCounts[i];
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            final long total = trials + other.trials;
+            final double delta = other.mean - mean;
+            mean += delta * other.trials / total;
+            m2 += other.m2 + delta * delta * ((double) trials * other.trials / total);
+            trials = total;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    /**
+     * 一次模拟的不可变结果。
+     */
+    public static final class Report {
+        private final long trials;
+        private final long[] outcomeCounts;
+        private final long[] histogram;
+        private final double[] outcomeValues;
+        private final int rollsPerTrial;
+        private final double mean;
+        private final double variance;
+        private final double min;
+        private final double max;
+        private final double histogramMin;
+        private final double histogramMax;
+
+        private Report(Partial partial, double[] outcomeValues, int rollsPerTrial, double histogramMin, double histogramMax) {
+            this.trials = partial.trials;
+            this.outcomeCounts = partial.outcomeCounts;
+            this.histogram = partial.histogram;
+            this.outcomeValues = outcomeValues;
+            this.rollsPerTrial = rollsPerTrial;
+            this.mean = partial.mean;
+            this.variance = partial.trials > 1 ? partial.m2 / (partial.trials - 1) : 0;
+            this.min = partial.min;
+            this.max = partial.max;
+            this.histogramMin = histogramMin;
+            this.histogramMax = histogramMax;
+        }
+
+        /**
+         * @return 试验次数。
+         */
+        public long trials() {
+            return trials;
+        }
+
+        /**
+         * @param outcome 结果索引。
+         * @return 该索引在所有试验中被抽中的总次数。
+         */
+        public long count(int outcome) {
+            return outcomeCounts[outcome];
+        }
+
+        /**
+         * @param outcome 结果索引。
+         * @return 该索引在所有单次抽取中出现的频率。
+         */
+        public double frequency(int outcome) {
+            return (double) outcomeCounts[outcome] / ((double) trials * rollsPerTrial);
+        }
+
+        /**
+         * @return 单次试验总价值的样本均值（期望值估计）。
+         */
+        public double mean() {
+            return mean;
+        }
+
+        /**
+         * @return 单次试验总价值的无偏样本方差。
+         */
+        public double variance() {
+            return variance;
+        }
+
+        /**
+         * @return 单次试验总价值的样本标准差。
+         */
+        public double standardDeviation() {
+            return Math.sqrt(variance);
+        }
+
+        /**
+         * @return 均值估计的标准误差。
+         */
+        public double standardError() {
+            return Math.sqrt(variance / trials);
+        }
+
+        /**
+         * @return 观测到的最小试验总价值。
+         */
+        public double min() {
+            return min;
+        }
+
+        /**
+         * @return 观测到的最大试验总价值。
+         */
+        public double max() {
+            return max;
+        }
+
+        /**
+         * 估计试验总价值的分位数。
+         * <p>
+         * 当每次试验只抽取一次时，结果根据各索引的计数精确计算；
+         * 否则根据等宽直方图线性插值估计，误差不超过一个桶宽。
+         *
+         * @param p 分位点，范围 [0, 1]。
+         * @return 分位数估计值。
+         * @throws IllegalArgumentException 如果 p 不在 [0, 1] 内。
+         */
+        public double percentile(double p) {
+            if (!(p >= 0 && p <= 1)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 1.");
+            }
+            final double rank = p * trials;
+            if (rollsPerTrial == 1) {
+                return exactPercentile(rank);
+            }
+            final double width = (histogramMax - histogramMin) / histogram.length;
+            long seen = 0;
+            for (int bin = 0; bin < histogram.length; bin++) {
+                final long count = histogram[bin];
+                if (count > 0 && seen + count >= rank) {
+                    final double value = histogramMin + width * (bin + (rank - seen) / count);
+                    return Math.max(min, Math.min(max, value));
+                }
+                seen += count;
+            }
+            return max;
+        }
+
+        private double exactPercentile(double rank) {
+            final Integer[] order = new Integer[outcomeValues.length];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (a, b) -> Double.compare(outcomeValues[a], outcomeValues[b]));
+            long seen = 0;
+            for (int outcome : order) {
+                seen += outcomeCounts[outcome];
+                if (outcomeCounts[outcome] > 0 && seen >= rank) {
+                    return outcomeValues[outcome];
+                }
+            }
+            return max;
+        }
+
+        /**
+         * @return 试验总价值直方图的副本，覆盖 [{@link #histogramMin()}, {@link #histogramMax()}] 的等宽区间。
+         */
+        public long[] histogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * @return 直方图下界，即每次试验可能的最小总价值。
+         */
+        public double histogramMin() {
+            return histogramMin;
+        }
+
+        /**
+         * @return 直方图上界，即每次试验可能的最大总价值。
+         */
+        public double histogramMax() {
+            return histogramMax;
+        }
+    }
+
+    /**
+     * {@link MonteCarloSimulator} 的构建器。
+     */
+    public static class Builder {
+        private final ToIntFunction<RandomGenerator> sampler;
+        private final double[] outcomeValues;
+        private int rollsPerTrial = 1;
+        private int histogramBins = 1024;
+        private long leafTrials = 1 << 15;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        /**
+         * @param sampler       采样器，接受一个随机数生成器并返回 [0, outcomeValues.length) 内的索引，
+         *                      例如 {@code aliasMethodRandom::next}。
+         * @param outcomeValues 每个索引对应的价值。数组会被复制。
+         */
+        public Builder(ToIntFunction<RandomGenerator> sampler, double[] outcomeValues) {
+            this.sampler = Objects.requireNonNull(sampler, "sampler");
+            if (outcomeValues == null || outcomeValues.length == 0) {
+                throw new IllegalArgumentException("Outcome values cannot be null or empty.");
+            }
+            for (double value : outcomeValues) {
+                if (!Double.isFinite(value)) {
+                    throw new IllegalArgumentException("Outcome values must be finite.");
+                }
+            }
+            this.outcomeValues = outcomeValues.clone();
+        }
+
+        /**
+         * @param rolls 每次试验的抽取次数，例如一次开 10 个箱子。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder rollsPerTrial(int rolls) {
+            if (rolls <= 0) throw new IllegalArgumentException("Rolls per trial must be positive.");
+            this.rollsPerTrial = rolls;
+            return this;
+        }
+
+        /**
+         * @param bins 用于分位数估计的直方图桶数量。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder histogramBins(int bins) {
+            if (bins <= 0) throw new IllegalArgumentException("Histogram bins must be positive.");
+            this.histogramBins = bins;
+            return this;
+        }
+
+        /**
+         * 设置单个子任务的最大试验次数。该值是确定性的一部分：不同的值会产生不同的生成器拆分结构。
+         *
+         * @param trials 叶子任务的试验次数上限。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder leafTrials(long trials) {
+            if (trials <= 0) throw new IllegalArgumentException("Leaf trials must be positive.");
+            this.leafTrials = trials;
+            return this;
+        }
+
+        /**
+         * @param pool 执行模拟的线程池，默认为 {@link ForkJoinPool#commonPool()}。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool, "pool");
+            return this;
+        }
+
+        public MonteCarloSimulator build() {
+            return new MonteCarloSimulator(this);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package gloomcore.math.random;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * {@link AliasMethodRandom} 的紧凑变体：每一列压缩为一个 {@code long}。
+ * <p>
+ * 高 32 位为无符号定点阈值（保留自身的概率 × 2<sup>32</sup>），低 32 位为别名索引。
+ * 概率为 1 的列以自身作为别名，因此无需特殊处理。
+ * 一次采样只需要一个随机 {@code long}：高 32 位通过乘法映射选出列，低 32 位与阈值做整数比较。
+ * <p>
+ * <b>性能特点:</b>
+ * <ul>
+ *   <li>采样: O(1)，只读取一个数组元素，没有浮点比较。</li>
+ *   <li>内存: 每列 8 字节（{@link AliasMethodRandom} 为每列 12 字节，并多一个数组头）。</li>
+ *   <li>精度: 概率被量化为 2<sup>-32</sup> 的整数倍。</li>
+ * </ul>
+ * 实例不可变，可安全地在多线程间共享。
+ */
+public final class PackedAliasMethodRandom {
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+    private static final double THRESHOLD_SCALE = 0x1p32;
+
+    private final long[] table;
+
+    /**
+     * 使用 double 权重数组构建采样器。
+     *
+     * @param weights 各索引的权重，必须非负且总和为正。
+     * @throws IllegalArgumentException 如果数组为空、包含负数权重或总和不为正。
+     */
+    public PackedAliasMethodRandom(double[] weights) {
+        this(new AliasMethodRandom(weights));
+    }
+
+    /**
+     * 将一个已构建的 {@link AliasMethodRandom} 压缩为紧凑格式。
+     *
+     * @param source 源别名表。
+     */
+    public PackedAliasMethodRandom(AliasMethodRandom source) {
+        final int size = source.size();
+        this.table = new long[size];
+        for (int column = 0; column < size; column++) {
+            final double probability = source.probability(column);
+            if (probability >= 1.0) {
+                table[column] = (LOW_MASK << 32) | column;
+            } else {
+                final long threshold = Math.min((long) (probability * THRESHOLD_SCALE + 0.5), LOW_MASK);
+                table[column] = (threshold << 32) | (source.alias(column) & LOW_MASK);
+            }
+        }
+    }
+
+    PackedAliasMethodRandom(long[] table) {
+        this.table = table;
+    }
+
+    /**
+     * @return 可采样的索引数量。
+     */
+    public int size() {
+        return table.length;
+    }
+
+    long[] table() {
+        return table;
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 采样一个索引。
+     *
+     * @return 范围在 [0, size) 内的索引。
+     */
+    public int next() {
+        return sample(table, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 使用指定的随机数生成器采样一个索引。
+     *
+     * @param random 随机数来源。
+     * @return 范围在 [0, size) 内的索引。
+     */
+    public int next(RandomGenerator random) {
+        return sample(table, random.nextLong());
+    }
+
+    /**
+     * 使用指定的随机数生成器将 {@code len} 个采样结果写入 {@code out[off, off + len)}。
+     *
+     * @param out    用于接收采样结果的数组。
+     * @param off    起始写入位置。
+     * @param len    采样次数。
+     * @param random 随机数来源。
+     * @throws IndexOutOfBoundsException 如果给定区间超出数组范围。
+     */
+    public void next(int[] out, int off, int len, RandomGenerator random) {
+        Objects.checkFromIndexSize(off, len, out.length);
+        final long[] table = this.table;
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = sample(table, random.nextLong());
+        }
+    }
+
+    /**
+     * 以一个 64 位随机数完成一次采样：高 32 位选列，低 32 位与阈值比较。
+     */
+    static int sample(long[] table, long bits) {
+        final int column = (int) (((bits >>> 32) * table.length) >>> 32);
+        final long entry = table[column];
+        return (bits & LOW_MASK) < (entry >>> 32) ? column : (int) entry;
+    }
+}
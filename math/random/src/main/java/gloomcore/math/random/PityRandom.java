@@ -0,0 +1,372 @@
+package gloomcore.math.random;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 带保底（pity）与伪随机分布（PRD）的按玩家加权采样器。
+ * <p>
+ * 构建时将权重表拆分为“稀有”与“普通”两张别名表。每次抽取先根据该玩家当前的连续未出稀有次数（streak）
+ * 查表得到本次出稀有的概率，再在对应的别名表中抽取具体索引。抽中稀有时 streak 清零，否则加一。
+ * 支持三种可叠加的概率曲线：
+ * <ul>
+ *   <li>硬保底 ({@link Builder#hardPity(int)}): 第 N 次必出稀有。</li>
+ *   <li>软保底 ({@link Builder#softPity(int, double)}): 从第 N 次起每次额外增加固定概率。</li>
+ *   <li>PRD ({@link Builder#pseudoRandom()}): 第 n 次概率为 {@code C·n}，长期出率仍等于原始概率，但分布更均匀。</li>
+ * </ul>
+ * 曲线的前 {@value #MAX_CURVE_LENGTH} 项在构建时预计算为 {@code double[]}，抽取时只需一次数组读取；
+ * 极低的稀有概率下 PRD 可能需要数十万次才达到必出，超出预计算范围的部分按同一公式直接计算，
+ * 因此任意正的稀有权重都可以使用 PRD。
+ * <p>
+ * 玩家 streak 存储在按 UUID 分段加锁的原始类型开放寻址表中，出稀有时条目即被移除，
+ * 因此只记录处于连败中的玩家。玩家退出时应调用 {@link #forget(UUID)} 释放其状态。
+ * 该类是线程安全的。
+ */
+public final class PityRandom {
+    private static final int STRIPES = 16;
+    private static final int MAX_CURVE_LENGTH = 1 << 16;
+
+    private final AliasMethodRandom rareTable;
+    private final int[] rareIndices;
+    private final AliasMethodRandom commonTable;
+    private final int[] commonIndices;
+    private final boolean[] rare;
+    private final double[] chanceByStreak;
+    private final Curve curve;
+    /**
+     * streak 的上限：此时的稀有概率已为 1，或概率从此不再变化。
+     */
+    private final int maxStreak;
+    private final UuidIntMap[] stripes;
+
+    private PityRandom(double[] weights, boolean[] rare, double[] chanceByStreak, Curve curve, int maxStreak) {
+        this.rare = rare;
+        this.chanceByStreak = chanceByStreak;
+        this.curve = curve;
+        this.maxStreak = maxStreak;
+        int rareCount = 0;
+        for (boolean flag : rare) {
+            if (flag) rareCount++;
+        }
+        this.rareIndices = new int[rareCount];
+        this.commonIndices = new int[weights.length - rareCount];
+        final double[] rareWeights = new double[rareCount];
+        final double[] commonWeights = new double[commonIndices.length];
+        double commonSum = 0;
+        for (int i = 0, r = 0, c = 0; i < weights.length; i++) {
+            if (rare[i]) {
+                rareIndices[r] = i;
+                rareWeights[r++] = weights[i];
+            } else {
+                commonIndices[c] = i;
+                commonWeights[c++] = weights[i];
+                commonSum += weights[i];
+            }
+        }
+        this.rareTable = new AliasMethodRandom(rareWeights);
+        this.commonTable = commonSum > 0 ? new AliasMethodRandom(commonWeights) : null;
+        this.stripes = new UuidIntMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new UuidIntMap();
+        }
+    }
+
+    private UuidIntMap stripe(long most, long least) {
+        return stripes[(int) (most ^ least ^ (least >>> 32)) & (STRIPES - 1)];
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 为指定玩家抽取一个索引，并更新其 streak。
+     *
+     * @param player 玩家 UUID。
+     * @return 原始权重表中的索引。
+     */
+    public int next(UUID player) {
+        return next(player, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器为指定玩家抽取一个索引，并更新其 streak。
+     *
+     * @param player 玩家 UUID。
+     * @param random 随机数来源。
+     * @return 原始权重表中的索引。
+     */
+    public int next(UUID player, RandomGenerator random) {
+        final long most = player.getMostSignificantBits();
+        final long least = player.getLeastSignificantBits();
+        final UuidIntMap map = stripe(most, least);
+        synchronized (map) {
+            final int streak = map.get(most, least, 0);
+            final int result = roll(streak, random);
+            if (rare[result]) {
+                map.remove(most, least);
+            } else {
+                map.put(most, least, Math.min(streak + 1, maxStreak));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 不读取也不修改任何玩家状态，按给定的 streak 抽取一次。
+     *
+     * @param streak 连续未出稀有的次数。
+     * @param random 随机数来源。
+     * @return 原始权重表中的索引。
+     */
+    public int roll(int streak, RandomGenerator random) {
+        if (commonTable == null || random.nextDouble() < rareChance(streak)) {
+            return rareIndices[rareTable.next(random)];
+        }
+        return commonIndices[commonTable.next(random)];
+    }
+
+    /**
+     * @param streak 连续未出稀有的次数。
+     * @return 下一次抽取出稀有的概率。
+     */
+    public double rareChance(int streak) {
+        final int index = Math.min(Math.max(streak, 0), maxStreak);
+        if (index < chanceByStreak.length) {
+            return chanceByStreak[index];
+        }
+        return curve.chance(index + 1L);
+    }
+
+    /**
+     * 获取玩家当前的连续未出稀有次数。该值在达到概率曲线末端（概率不再变化）后不再增加。
+     *
+     * @param player 玩家 UUID。
+     * @return 该玩家当前的 streak。
+     */
+    public int streak(UUID player) {
+        final long most = player.getMostSignificantBits();
+        final long least = player.getLeastSignificantBits();
+        final UuidIntMap map = stripe(most, least);
+        synchronized (map) {
+            return map.get(most, least, 0);
+        }
+    }
+
+    /**
+     * 移除指定玩家的状态。应在玩家退出时调用，以免状态无限增长。
+     *
+     * @param player 玩家 UUID。
+     * @return 如果该玩家存在状态并被移除，则为 true。
+     */
+    public boolean forget(UUID player) {
+        final long most = player.getMostSignificantBits();
+        final long least = player.getLeastSignificantBits();
+        final UuidIntMap map = stripe(most, least);
+        synchronized (map) {
+            return map.remove(most, least);
+        }
+    }
+
+    /**
+     * @return 当前记录了 streak 的玩家数量。
+     */
+    public int trackedPlayers() {
+        int total = 0;
+        for (UuidIntMap map : stripes) {
+            synchronized (map) {
+                total += map.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 清除所有玩家的状态。
+     */
+    public void clear() {
+        for (UuidIntMap map : stripes) {
+            synchronized (map) {
+                map.clear();
+            }
+        }
+    }
+
+    /**
+     * {@link PityRandom} 的构建器。
+     */
+    public static class Builder {
+        private final double[] weights;
+        private final boolean[] rare;
+        private int hardPity;
+        private int softPityStart;
+        private double softPityStep;
+        private boolean pseudoRandom;
+
+        /**
+         * @param weights 各索引的权重，必须非负。数组会被复制。
+         */
+        public Builder(double[] weights) {
+            if (weights == null || weights.length == 0) {
+                throw new IllegalArgumentException("Weights list cannot be null or empty.");
+            }
+            for (double weight : weights) {
+                if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+                    throw new IllegalArgumentException("Weights must be non-negative and finite.");
+                }
+            }
+            this.weights = weights.clone();
+            this.rare = new boolean[weights.length];
+        }
+
+        /**
+         * 将指定索引标记为稀有结果，保底与 PRD 只作用于稀有结果。
+         *
+         * @param indices 稀有结果的索引。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder rare(int... indices) {
+            for (int index : indices) {
+                rare[Objects.checkIndex(index, rare.length)] = true;
+            }
+            return this;
+        }
+
+        /**
+         * @param rolls 硬保底次数：连续 {@code rolls - 1} 次未出稀有时，第 {@code rolls} 次必出稀有。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder hardPity(int rolls) {
+            if (rolls <= 0) throw new IllegalArgumentException("Hard pity must be positive.");
+            this.hardPity = rolls;
+            return this;
+        }
+
+        /**
+         * @param startRoll 软保底从第几次抽取开始生效。
+         * @param step      此后每次抽取额外增加的稀有概率。
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder softPity(int startRoll, double step) {
+            if (startRoll <= 0) throw new IllegalArgumentException("Soft pity start must be positive.");
+            if (!(step > 0 && step <= 1)) throw new IllegalArgumentException("Soft pity step must be in (0, 1].");
+            this.softPityStart = startRoll;
+            this.softPityStep = step;
+            return this;
+        }
+
+        /**
+         * 使用伪随机分布：第 n 次抽取的稀有概率为 {@code C·n}，常数 C 使长期出率等于原始稀有概率。
+         * 启用后软保底设置将被忽略。
+         *
+         * @return Builder 实例，用于链式调用。
+         */
+        public Builder pseudoRandom() {
+            this.pseudoRandom = true;
+            return this;
+        }
+
+        public PityRandom build() {
+            double total = 0;
+            double rareSum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                if (rare[i]) rareSum += weights[i];
+            }
+            if (!(rareSum > 0)) {
+                throw new IllegalArgumentException("Rare outcomes must have a positive total weight.");
+            }
+            final double baseChance = rareSum / total;
+            final Curve curve = new Curve(baseChance, pseudoRandom ? prdConstant(baseChance) : 0,
+                    pseudoRandom ? 0 : softPityStart, softPityStep, hardPity);
+            // 概率恒定时只需一项；否则存储到必出为止，超过预计算上限的部分由 Curve 直接计算。
+            final long certainRoll = curve.certainRoll();
+            final int maxStreak = certainRoll == Long.MAX_VALUE ? 0 : (int) Math.min(certainRoll - 1, Integer.MAX_VALUE - 1);
+            final double[] chances = new double[Math.min(maxStreak + 1, MAX_CURVE_LENGTH)];
+            for (int i = 0; i < chances.length; i++) {
+                chances[i] = curve.chance(i + 1L);
+            }
+            return new PityRandom(weights, rare.clone(), chances, curve, maxStreak);
+        }
+
+        /**
+         * 二分求解 PRD 常数 C，使 {@code P(n) = min(1, C·n)} 的长期出率等于目标概率。
+         */
+        private static double prdConstant(double target) {
+            double low = 0;
+            double high = target;
+            for (int iteration = 0; iteration < 64; iteration++) {
+                final double mid = (low + high) * 0.5;
+                if (prdRate(mid) > target) {
+                    high = mid;
+                } else {
+                    low = mid;
+                }
+            }
+            return (low + high) * 0.5;
+        }
+
+        private static double prdRate(double constant) {
+            double expectedRolls = 0;
+            double survive = 1;
+            for (int n = 1; survive > 0; n++) {
+                final double chance = Math.min(1.0, constant * n);
+                expectedRolls += n * survive * chance;
+                survive *= 1 - chance;
+            }
+            return 1 / expectedRolls;
+        }
+    }
+
+    /**
+     * 稀有概率曲线：第 roll 次抽取（roll 从 1 开始）出稀有的概率。
+     *
+     * @param baseChance    原始稀有概率。
+     * @param prdConstant   PRD 常数 C；为 0 时不使用 PRD。
+     * @param softPityStart 软保底起始次数；为 0 时不使用软保底。
+     * @param softPityStep  软保底每次增加的概率。
+     * @param hardPity      硬保底次数；为 0 时不使用硬保底。
+     */
+    private record Curve(double baseChance, double prdConstant, int softPityStart, double softPityStep, int hardPity) {
+
+        double chance(long roll) {
+            if (hardPity > 0 && roll >= hardPity) {
+                return 1.0;
+            }
+            final double chance;
+            if (prdConstant > 0) {
+                chance = prdConstant * roll;
+            } else if (softPityStart > 0 && roll >= softPityStart) {
+                chance = baseChance + softPityStep * (roll - softPityStart + 1);
+            } else {
+                chance = baseChance;
+            }
+            return Math.min(chance, 1.0);
+        }
+
+        /**
+         * @return 概率首次达到 1 的抽取次数；概率恒定且小于 1 时返回 {@link Long#MAX_VALUE}。
+         */
+        long certainRoll() {
+            long roll;
+            if (baseChance >= 1.0) {
+                roll = 1;
+            } else if (prdConstant > 0) {
+                roll = (long) Math.ceil(1 / prdConstant);
+            } else if (softPityStart > 0) {
+                roll = softPityStart - 1 + (long) Math.ceil((1 - baseChance) / softPityStep);
+            } else {
+                roll = Long.MAX_VALUE;
+            }
+            if (roll != Long.MAX_VALUE) {
+                // 修正浮点舍入，使 roll 恰为第一个概率为 1 的位置。
+                roll = Math.max(roll, 1);
+                while (chance(roll) < 1.0) roll++;
+                while (roll > 1 && chance(roll - 1) >= 1.0) roll--;
+            }
+            if (hardPity > 0) {
+                roll = Math.min(roll, hardPity);
+            }
+            return roll;
+        }
+    }
+}
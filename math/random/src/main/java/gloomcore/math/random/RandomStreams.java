@@ -0,0 +1,118 @@
+package gloomcore.math.random;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * 按键派生确定性随机数流的提供器，适用于 Folia 的区域线程。
+ * <p>
+ * 每个流都由根种子与键（任意 long，或 世界 + 区块坐标）经 SplitMix64 混合后得到独立种子，
+ * 再创建一个新的 {@link SplittableRandom}。派生过程是纯函数：没有共享的可变状态、不加锁，
+ * 可以在任何线程上并发调用，同样的根种子与键总是得到同样的序列。
+ * <p>
+ * 返回的生成器本身不是线程安全的，应在单个任务内使用，或通过
+ * {@link RandomGenerator.SplittableGenerator#split()} 继续派生子流。
+ * 所有 {@code gloomcore.math.random} 中的采样器都接受 {@link RandomGenerator}，可直接传入。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * RandomStreams streams = new RandomStreams(worldSeed);
+ *
+ * PaperScheduler.INSTANCE.chunk(world, chunkX, chunkZ).run(() -> {
+ *     RandomGenerator random = streams.forChunk(world.getUID(), chunkX, chunkZ);
+ *     int loot = lootTable.next(random);
+ * });
+ * }</pre>
+ */
+public final class RandomStreams {
+    private static final long GOLDEN_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+
+    private final long seed;
+
+    /**
+     * @param seed 根种子，所有派生流都由它决定。
+     */
+    public RandomStreams(long seed) {
+        this.seed = mix64(seed);
+    }
+
+    /**
+     * SplitMix64 的最终混合函数 (Stafford variant 13)。
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private long derive(long key) {
+        return mix64(seed ^ mix64(key + GOLDEN_GAMMA));
+    }
+
+    /**
+     * 将区块坐标打包为一个 long 键。
+     *
+     * @param chunkX 区块 X 坐标。
+     * @param chunkZ 区块 Z 坐标。
+     * @return 打包后的键。
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * 由世界 UUID 得到一个 long 键。
+     *
+     * @param world 世界 UUID。
+     * @return 世界键。
+     */
+    public static long worldKey(UUID world) {
+        return mix64(world.getMostSignificantBits()) ^ world.getLeastSignificantBits();
+    }
+
+    /**
+     * 派生一个由任意 long 键决定的随机数流。
+     *
+     * @param key 流的键。
+     * @return 新的可拆分生成器。
+     */
+    public RandomGenerator.SplittableGenerator forKey(long key) {
+        return new SplittableRandom(derive(key));
+    }
+
+    /**
+     * 派生一个由两个 long 键共同决定的随机数流，例如 (区块键, 功能 ID)。
+     *
+     * @param key  主键。
+     * @param salt 次键，用于区分同一主键下的不同用途。
+     * @return 新的可拆分生成器。
+     */
+    public RandomGenerator.SplittableGenerator forKey(long key, long salt) {
+        return new SplittableRandom(mix64(derive(key) ^ mix64(salt)));
+    }
+
+    /**
+     * 派生一个由世界键和区块坐标决定的随机数流。
+     *
+     * @param worldKey 世界键，可由 {@link #worldKey(UUID)} 计算并缓存。
+     * @param chunkX   区块 X 坐标。
+     * @param chunkZ   区块 Z 坐标。
+     * @return 新的可拆分生成器。
+     */
+    public RandomGenerator.SplittableGenerator forChunk(long worldKey, int chunkX, int chunkZ) {
+        return forKey(worldKey, chunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * 派生一个由世界和区块坐标决定的随机数流。
+     *
+     * @param world  世界 UUID。
+     * @param chunkX 区块 X 坐标。
+     * @param chunkZ 区块 Z 坐标。
+     * @return 新的可拆分生成器。
+     */
+    public RandomGenerator.SplittableGenerator forChunk(UUID world, int chunkX, int chunkZ) {
+        return forChunk(worldKey(world), chunkX, chunkZ);
+    }
+}
@@ -0,0 +1,169 @@
+package gloomcore.math.random;
+
+/**
+ * 以 UUID（拆分为两个 long）为键、int 为值的开放寻址哈希表，不对键值装箱。
+ * <p>
+ * 采用线性探测与后移删除（backward-shift deletion），不使用墓碑标记，删除后表不会退化。
+ * 负载低于 1/8 时容量自动减半，因此内存占用随条目数量回落。
+ * 全零的 UUID 无法作为空槽标记，因此单独存储。
+ * <p>
+ * <b>注意:</b> 该类不是线程安全的。
+ */
+final class UuidIntMap {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] mostBits;
+    private long[] leastBits;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    UuidIntMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        this.mostBits = new long[capacity];
+        this.leastBits = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = capacity >>> 1;
+    }
+
+    private static int hash(long most, long least) {
+        long h = most * 0x9E37_79B9_7F4A_7C15L ^ least;
+        h ^= h >>> 32;
+        h *= 0xD6E8_FEB8_6659_FD93L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    int get(long most, long least, int defaultValue) {
+        if ((most | least) == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = hash(most, least) & mask;
+        while (true) {
+            final long m = mostBits[slot];
+            final long l = leastBits[slot];
+            if ((m | l) == 0) {
+                return defaultValue;
+            }
+            if (m == most && l == least) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void put(long most, long least, int value) {
+        if ((most | least) == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int slot = hash(most, least) & mask;
+        while (true) {
+            final long m = mostBits[slot];
+            final long l = leastBits[slot];
+            if ((m | l) == 0) {
+                mostBits[slot] = most;
+                leastBits[slot] = least;
+                values[slot] = value;
+                if (++size > resizeThreshold) {
+                    rehash(mostBits.length << 1);
+                }
+                return;
+            }
+            if (m == most && l == least) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    boolean remove(long most, long least) {
+        if ((most | least) == 0) {
+            final boolean removed = hasZeroKey;
+            hasZeroKey = false;
+            return removed;
+        }
+        int slot = hash(most, least) & mask;
+        while (true) {
+            final long m = mostBits[slot];
+            final long l = leastBits[slot];
+            if ((m | l) == 0) {
+                return false;
+            }
+            if (m == most && l == least) {
+                shiftBack(slot);
+                // 负载降到 1/8 以下时减半容量，避免一次玩家高峰后表永久停留在峰值大小。
+                if (--size < mostBits.length >>> 3 && mostBits.length > MIN_CAPACITY) {
+                    rehash(mostBits.length >>> 1);
+                }
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 将空出的槽位之后、属于同一探测链的元素前移，以保持线性探测的不变式。
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            final long m = mostBits[slot];
+            final long l = leastBits[slot];
+            if ((m | l) == 0) {
+                break;
+            }
+            final int home = hash(m, l) & mask;
+            // 仅当元素的理想位置不在 (gap, slot] 环形区间内时，才能移动到 gap。
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                mostBits[gap] = m;
+                leastBits[gap] = l;
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        mostBits[gap] = 0;
+        leastBits[gap] = 0;
+        values[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldMost = mostBits;
+        final long[] oldLeast = leastBits;
+        final int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldMost.length; i++) {
+            final long m = oldMost[i];
+            final long l = oldLeast[i];
+            if ((m | l) != 0) {
+                int slot = hash(m, l) & mask;
+                while ((mostBits[slot] | leastBits[slot]) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                mostBits[slot] = m;
+                leastBits[slot] = l;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+        hasZeroKey = false;
+    }
+}
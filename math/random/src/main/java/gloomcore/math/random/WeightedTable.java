@@ -0,0 +1,173 @@
+package gloomcore.math.random;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 一个不可变的泛型加权随机表，直接返回被抽中的对象，而不是索引。
+ * <p>
+ * 表项既可以是普通值，也可以是另一个 {@link WeightedTable}（嵌套子表）。
+ * 构建时所有子表都会按权重比例展开为同一层，并编译成一张 {@link AliasMethodRandom} 别名表，
+ * 因此无论嵌套多深，一次抽取都只需一次列选择和一次概率比较。
+ *
+ * <h2>基本用法</h2>
+ * <pre>{@code
+ * WeightedTable<String> rare = new WeightedTable.Builder<String>()
+ *     .add("Diamond", 1)
+ *     .add("Emerald", 3)
+ *     .build();
+ *
+ * WeightedTable<String> loot = new WeightedTable.Builder<String>()
+ *     .add("Dirt", 90)
+ *     .add(rare, 10) // 以 10 的权重抽中子表，再在子表内按 1:3 分配
+ *     .build();
+ *
+ * String item = loot.sample();
+ * }</pre>
+ *
+ * @param <T> 表项的类型。
+ */
+public final class WeightedTable<T> {
+    private final Object[] values;
+    private final double[] weights;
+    private final double totalWeight;
+    private final AliasMethodRandom sampler;
+
+    private WeightedTable(Object[] values, double[] weights, double totalWeight) {
+        this.values = values;
+        this.weights = weights;
+        this.totalWeight = totalWeight;
+        this.sampler = new AliasMethodRandom(weights);
+    }
+
+    /**
+     * @return 展开嵌套子表后的表项数量。
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * 获取展开后指定位置的表项。
+     *
+     * @param index 展开后的索引。
+     * @return 对应的表项。
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) values[index];
+    }
+
+    /**
+     * 计算展开后指定位置表项被抽中的概率。
+     *
+     * @param index 展开后的索引。
+     * @return 范围在 [0, 1] 内的概率。
+     */
+    public double probability(int index) {
+        return weights[index] / totalWeight;
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 抽取一个表项。
+     *
+     * @return 被抽中的表项。
+     */
+    public T sample() {
+        return sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器抽取一个表项。
+     *
+     * @param random 随机数来源。
+     * @return 被抽中的表项。
+     */
+    @SuppressWarnings("unchecked")
+    public T sample(RandomGenerator random) {
+        return (T) values[sampler.next(random)];
+    }
+
+    /**
+     * {@link WeightedTable} 的构建器。
+     * <p>
+     * 权重为 0 的表项会被忽略；同一个值多次添加时各自独立计权。
+     *
+     * @param <T> 表项的类型。
+     */
+    public static class Builder<T> {
+        private Object[] values = new Object[8];
+        private double[] weights = new double[8];
+        private int size;
+
+        /**
+         * 添加一个普通表项。
+         *
+         * @param value  表项的值。
+         * @param weight 表项的权重，必须非负。
+         * @return Builder 实例，用于链式调用。
+         * @throws IllegalArgumentException 如果权重为负数或不是有限值。
+         */
+        public Builder<T> add(T value, double weight) {
+            checkWeight(weight);
+            if (weight > 0) {
+                append(value, weight);
+            }
+            return this;
+        }
+
+        /**
+         * 添加一个嵌套子表。子表的总权重被视为 {@code weight}，并按子表内部的比例分配到其每个表项上。
+         *
+         * @param table  子表。
+         * @param weight 子表整体被抽中的权重，必须非负。
+         * @return Builder 实例，用于链式调用。
+         * @throws IllegalArgumentException 如果权重为负数或不是有限值。
+         */
+        public Builder<T> add(WeightedTable<? extends T> table, double weight) {
+            checkWeight(weight);
+            if (weight > 0) {
+                final double factor = weight / table.totalWeight;
+                for (int i = 0; i < table.values.length; i++) {
+                    append(table.values[i], table.weights[i] * factor);
+                }
+            }
+            return this;
+        }
+
+        private static void checkWeight(double weight) {
+            if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("Weights must be non-negative and finite.");
+            }
+        }
+
+        private void append(Object value, double weight) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+                weights = Arrays.copyOf(weights, size << 1);
+            }
+            values[size] = value;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * 展开所有子表并编译成最终的别名表。
+         *
+         * @return 一个不可变的 {@link WeightedTable}。
+         * @throws IllegalArgumentException 如果没有任何正权重的表项。
+         */
+        public WeightedTable<T> build() {
+            if (size == 0) {
+                throw new IllegalArgumentException("Weighted table must contain at least one entry with positive weight.");
+            }
+            final double[] builtWeights = Arrays.copyOf(weights, size);
+            double total = 0;
+            for (double weight : builtWeights) {
+                total += weight;
+            }
+            return new WeightedTable<>(Arrays.copyOf(values, size), builtWeights, total);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package gloomcore.math.random.distribution;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 二项分布采样器，所有与参数相关的常量都在构建时预计算。
+ * <p>
+ * <ul>
+ *   <li>{@code n·min(p, 1-p) < 10} 时：预计算累积分布表，采样为一次均匀随机数加一次二分查找。</li>
+ *   <li>否则：使用 Hörmann 的 BTRS（带挤压的变换拒绝法），耗时与 n 无关。</li>
+ * </ul>
+ * 当 {@code p > 0.5} 时内部按 {@code 1 - p} 采样并取 {@code n - k}，以保证两种方法都工作在数值稳定的区间。
+ * 实例不可变，可安全地在多线程间共享。
+ */
+public final class BinomialSampler {
+    private static final double TABLE_THRESHOLD = 10;
+
+    private final int trials;
+    private final double probability;
+    private final boolean flipped;
+    private final double[] cdf;
+    // BTRS 常量
+    private final double a;
+    private final double b;
+    private final double c;
+    private final double vr;
+    private final double alpha;
+    private final double logOdds;
+    private final long mode;
+    private final double logModeTerm;
+
+    /**
+     * @param trials      试验次数 n，必须非负。
+     * @param probability 单次成功概率 p，范围 [0, 1]。
+     * @throws IllegalArgumentException 如果参数超出允许范围。
+     */
+    public BinomialSampler(int trials, double probability) {
+        if (trials < 0) {
+            throw new IllegalArgumentException("Trials must be non-negative.");
+        }
+        if (!(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1.");
+        }
+        this.trials = trials;
+        this.probability = probability;
+        this.flipped = probability > 0.5;
+        final double p = flipped ? 1 - probability : probability;
+        final double q = 1 - p;
+        if (trials * p < TABLE_THRESHOLD) {
+            this.cdf = buildTable(trials, p, q);
+            this.a = 0;
+            this.b = 0;
+            this.c = 0;
+            this.vr = 0;
+            this.alpha = 0;
+            this.logOdds = 0;
+            this.mode = 0;
+            this.logModeTerm = 0;
+        } else {
+            this.cdf = null;
+            final double spq = Math.sqrt(trials * p * q);
+            this.b = 1.15 + 2.53 * spq;
+            this.a = -0.0873 + 0.0248 * b + 0.01 * p;
+            this.c = trials * p + 0.5;
+            this.vr = 0.92 - 4.2 / b;
+            this.alpha = (2.83 + 5.1 / b) * spq;
+            this.logOdds = Math.log(p / q);
+            this.mode = (long) Math.floor((trials + 1) * p);
+            this.logModeTerm = DiscreteSupport.logFactorial(mode) + DiscreteSupport.logFactorial(trials - mode);
+        }
+    }
+
+    private static double[] buildTable(int trials, double p, double q) {
+        if (p == 0) {
+            return new double[]{1.0};
+        }
+        double[] table = new double[Math.min(trials + 1, 32)];
+        final double odds = p / q;
+        double mass = Math.exp(trials * Math.log1p(-p));
+        double cumulative = mass;
+        int k = 0;
+        table[k] = cumulative;
+        final double mean = trials * p;
+        while (k < trials && cumulative < 1.0 && (k < mean || mass > 1e-17 * cumulative)) {
+            mass *= odds * (trials - k) / (k + 1);
+            k++;
+            cumulative += mass;
+            if (k == table.length) {
+                table = Arrays.copyOf(table, Math.min(trials + 1, k << 1));
+            }
+            table[k] = cumulative;
+        }
+        table[k] = 1.0;
+        return Arrays.copyOf(table, k + 1);
+    }
+
+    /**
+     * @return 试验次数 n。
+     */
+    public int trials() {
+        return trials;
+    }
+
+    /**
+     * @return 单次成功概率 p。
+     */
+    public double probability() {
+        return probability;
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 采样一个值。
+     *
+     * @return 采样结果，范围 [0, n]。
+     */
+    public int next() {
+        return next(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器采样一个值。
+     *
+     * @param random 随机数来源。
+     * @return 采样结果，范围 [0, n]。
+     */
+    public int next(RandomGenerator random) {
+        final int k = cdf != null ? DiscreteSupport.searchCdf(cdf, random.nextDouble()) : rejection(random);
+        return flipped ? trials - k : k;
+    }
+
+    private int rejection(RandomGenerator random) {
+        final int n = trials;
+        while (true) {
+            final double u = random.nextDouble() - 0.5;
+            double v = random.nextDouble();
+            final double us = 0.5 - Math.abs(u);
+            final long k = (long) Math.floor((2 * a / us + b) * u + c);
+            if (k < 0 || k > n) {
+                continue;
+            }
+            if (us >= 0.07 && v <= vr) {
+                return (int) k;
+            }
+            v = Math.log(v * alpha / (a / (us * us) + b));
+            if (v <= logModeTerm - DiscreteSupport.logFactorial(k) - DiscreteSupport.logFactorial(n - k)
+                    + (k - mode) * logOdds) {
+                return (int) k;
+            }
+        }
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 填满整个数组。
+     *
+     * @param out 用于接收采样结果的数组。
+     */
+    public void fill(int[] out) {
+        fill(out, 0, out.length, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器将 {@code len} 个采样结果写入 {@code out[off, off + len)}。
+     *
+     * @param out    用于接收采样结果的数组。
+     * @param off    起始写入位置。
+     * @param len    采样次数。
+     * @param random 随机数来源。
+     * @throws IndexOutOfBoundsException 如果给定区间超出数组范围。
+     */
+    public void fill(int[] out, int off, int len, RandomGenerator random) {
+        Objects.checkFromIndexSize(off, len, out.length);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = next(random);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package gloomcore.math.random.distribution;
+
+/**
+ * 离散分布采样器共享的数值工具：对数阶乘与累积分布表查找。
+ */
+final class DiscreteSupport {
+    private static final int TABLE_SIZE = 256;
+    private static final double[] LOG_FACTORIAL = new double[TABLE_SIZE];
+    private static final double HALF_LOG_TWO_PI = 0.5 * Math.log(2 * Math.PI);
+
+    static {
+        double sum = 0;
+        for (int k = 1; k < TABLE_SIZE; k++) {
+            sum += Math.log(k);
+            LOG_FACTORIAL[k] = sum;
+        }
+    }
+
+    private DiscreteSupport() {
+    }
+
+    /**
+     * 计算 ln(k!)。小于 256 时查表，否则使用 Stirling 级数，相对误差约为 1e-15。
+     */
+    static double logFactorial(long k) {
+        if (k < TABLE_SIZE) {
+            return LOG_FACTORIAL[(int) k];
+        }
+        final double x = k;
+        final double inverse = 1.0 / x;
+        final double inverseSquared = inverse * inverse;
+        return x * Math.log(x) - x + 0.5 * Math.log(x) + HALF_LOG_TWO_PI
+                + inverse * (1.0 / 12 - inverseSquared * (1.0 / 360 - inverseSquared / 1260));
+    }
+
+    /**
+     * 在单调递增的累积分布表中查找第一个大于 {@code u} 的位置；若不存在则返回最后一个位置。
+     */
+    static int searchCdf(double[] cdf, double u) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (cdf[mid] > u) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,86 @@
+package gloomcore.math.random.distribution;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 基于 Ziggurat 算法的指数分布采样器，用于替代 {@code -Math.log(nextDouble()) / rate} 的写法。
+ * <p>
+ * 实例不可变，可安全地在多线程间共享。
+ */
+public final class ExponentialSampler {
+    private final double rate;
+    private final double scale;
+
+    /**
+     * @param rate 速率参数 λ，必须为正。均值为 {@code 1 / rate}。
+     * @throws IllegalArgumentException 如果速率不是正的有限值。
+     */
+    public ExponentialSampler(double rate) {
+        if (!(rate > 0) || rate == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Rate must be positive and finite.");
+        }
+        this.rate = rate;
+        this.scale = 1.0 / rate;
+    }
+
+    /**
+     * @return 一个服从标准指数分布 Exp(1) 的随机数。
+     */
+    public static double standard(RandomGenerator random) {
+        return Ziggurat.nextExponential(random);
+    }
+
+    /**
+     * @return 速率参数 λ。
+     */
+    public double rate() {
+        return rate;
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 采样一个值。
+     *
+     * @return 采样结果。
+     */
+    public double next() {
+        return next(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器采样一个值。
+     *
+     * @param random 随机数来源。
+     * @return 采样结果。
+     */
+    public double next(RandomGenerator random) {
+        return scale * Ziggurat.nextExponential(random);
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 填满整个数组。
+     *
+     * @param out 用于接收采样结果的数组。
+     */
+    public void fill(double[] out) {
+        fill(out, 0, out.length, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器将 {@code len} 个采样结果写入 {@code out[off, off + len)}。
+     *
+     * @param out    用于接收采样结果的数组。
+     * @param off    起始写入位置。
+     * @param len    采样次数。
+     * @param random 随机数来源。
+     * @throws IndexOutOfBoundsException 如果给定区间超出数组范围。
+     */
+    public void fill(double[] out, int off, int len, RandomGenerator random) {
+        Objects.checkFromIndexSize(off, len, out.length);
+        final double scale = this.scale;
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = scale * Ziggurat.nextExponential(random);
+        }
+    }
+}
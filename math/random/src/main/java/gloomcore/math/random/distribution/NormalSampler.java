@@ -0,0 +1,95 @@
+package gloomcore.math.random.distribution;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 基于 Ziggurat 算法的正态分布采样器，用于替代 {@code nextGaussian()} 在紧密循环中的使用。
+ * <p>
+ * 实例不可变，可安全地在多线程间共享。
+ */
+public final class NormalSampler {
+    private final double mean;
+    private final double standardDeviation;
+
+    /**
+     * @param mean              均值。
+     * @param standardDeviation 标准差，必须非负。
+     * @throws IllegalArgumentException 如果参数不是有限值或标准差为负数。
+     */
+    public NormalSampler(double mean, double standardDeviation) {
+        if (!Double.isFinite(mean) || !Double.isFinite(standardDeviation) || standardDeviation < 0) {
+            throw new IllegalArgumentException("Mean must be finite and standard deviation must be non-negative.");
+        }
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+    }
+
+    /**
+     * @return 一个服从标准正态分布 N(0, 1) 的随机数。
+     */
+    public static double standard(RandomGenerator random) {
+        return Ziggurat.nextGaussian(random);
+    }
+
+    /**
+     * @return 均值。
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * @return 标准差。
+     */
+    public double standardDeviation() {
+        return standardDeviation;
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 采样一个值。
+     *
+     * @return 采样结果。
+     */
+    public double next() {
+        return next(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器采样一个值。
+     *
+     * @param random 随机数来源。
+     * @return 采样结果。
+     */
+    public double next(RandomGenerator random) {
+        return mean + standardDeviation * Ziggurat.nextGaussian(random);
+    }
+
+    /**
+     * 使用 {@link ThreadLocalRandom} 填满整个数组。
+     *
+     * @param out 用于接收采样结果的数组。
+     */
+    public void fill(double[] out) {
+        fill(out, 0, out.length, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器将 {@code len} 个采样结果写入 {@code out[off, off + len)}。
+     *
+     * @param out    用于接收采样结果的数组。
+     * @param off    起始写入位置。
+     * @param len    采样次数。
+     * @param random 随机数来源。
+     * @throws IndexOutOfBoundsException 如果给定区间超出数组范围。
+     */
+    public void fill(double[] out, int off, int len, RandomGenerator random) {
+        Objects.checkFromIndexSize(off, len, out.length);
+        final double mean = this.mean;
+        final double standardDeviation = this.standardDeviation;
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = mean + standardDeviation * Ziggurat.nextGaussian(random);
+        }
+    }
+}
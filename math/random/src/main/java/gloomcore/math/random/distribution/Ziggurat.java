@@ -0,0 +1,133 @@
+package gloomcore.math.random.distribution;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Marsaglia–Tsang Ziggurat 算法的共享查找表与核心采样例程。
+ * <p>
+ * 标准正态分布使用 128 层，标准指数分布使用 256 层。绝大多数情况下（约 99%）一次采样只需要
+ * 一个随机 {@code long}、一次整数比较和一次乘法，不调用 {@code Math.log}/{@code Math.exp}。
+ * 层编号与坐标取自随机数中互不重叠的位，避免原始实现中二者相关的问题。
+ */
+final class Ziggurat {
+    private static final double NORMAL_R = 3.442619855899;
+    private static final double NORMAL_V = 9.91256303526217e-3;
+    private static final double EXPONENTIAL_R = 7.697117470131487;
+    private static final double EXPONENTIAL_V = 3.949659822581572e-3;
+
+    private static final long[] KN = new long[128];
+    private static final double[] WN = new double[128];
+    private static final double[] FN = new double[128];
+    private static final long[] KE = new long[256];
+    private static final double[] WE = new double[256];
+    private static final double[] FE = new double[256];
+
+    static {
+        final double m1 = 2147483648.0;
+        double dn = NORMAL_R;
+        double tn = dn;
+        final double q = NORMAL_V / Math.exp(-0.5 * dn * dn);
+        KN[0] = (long) ((dn / q) * m1);
+        KN[1] = 0;
+        WN[0] = q / m1;
+        WN[127] = dn / m1;
+        FN[0] = 1.0;
+        FN[127] = Math.exp(-0.5 * dn * dn);
+        for (int i = 126; i >= 1; i--) {
+            dn = Math.sqrt(-2.0 * Math.log(NORMAL_V / dn + Math.exp(-0.5 * dn * dn)));
+            KN[i + 1] = (long) ((dn / tn) * m1);
+            tn = dn;
+            FN[i] = Math.exp(-0.5 * dn * dn);
+            WN[i] = dn / m1;
+        }
+
+        final double m2 = 4294967296.0;
+        double de = EXPONENTIAL_R;
+        double te = de;
+        final double qe = EXPONENTIAL_V / Math.exp(-de);
+        KE[0] = (long) ((de / qe) * m2);
+        KE[1] = 0;
+        WE[0] = qe / m2;
+        WE[255] = de / m2;
+        FE[0] = 1.0;
+        FE[255] = Math.exp(-de);
+        for (int i = 254; i >= 1; i--) {
+            de = -Math.log(EXPONENTIAL_V / de + Math.exp(-de));
+            KE[i + 1] = (long) ((de / te) * m2);
+            te = de;
+            FE[i] = Math.exp(-de);
+            WE[i] = de / m2;
+        }
+    }
+
+    private Ziggurat() {
+    }
+
+    /**
+     * @return 一个服从标准正态分布 N(0, 1) 的随机数。
+     */
+    static double nextGaussian(RandomGenerator random) {
+        long bits = random.nextLong();
+        int hz = (int) bits;
+        int iz = (int) (bits >>> 32) & 127;
+        if (Math.abs((long) hz) < KN[iz]) {
+            return hz * WN[iz];
+        }
+        while (true) {
+            if (iz == 0) {
+                // 底层尾部：Marsaglia 尾部算法。
+                double x;
+                double y;
+                do {
+                    x = -Math.log(uniform(random)) / NORMAL_R;
+                    y = -Math.log(uniform(random));
+                } while (y + y < x * x);
+                return hz > 0 ? NORMAL_R + x : -NORMAL_R - x;
+            }
+            final double x = hz * WN[iz];
+            if (FN[iz] + random.nextDouble() * (FN[iz - 1] - FN[iz]) < Math.exp(-0.5 * x * x)) {
+                return x;
+            }
+            bits = random.nextLong();
+            hz = (int) bits;
+            iz = (int) (bits >>> 32) & 127;
+            if (Math.abs((long) hz) < KN[iz]) {
+                return hz * WN[iz];
+            }
+        }
+    }
+
+    /**
+     * @return 一个服从标准指数分布 Exp(1) 的随机数。
+     */
+    static double nextExponential(RandomGenerator random) {
+        long bits = random.nextLong();
+        long jz = bits & 0xFFFF_FFFFL;
+        int iz = (int) (bits >>> 32) & 255;
+        if (jz < KE[iz]) {
+            return jz * WE[iz];
+        }
+        while (true) {
+            if (iz == 0) {
+                return EXPONENTIAL_R - Math.log(uniform(random));
+            }
+            final double x = jz * WE[iz];
+            if (FE[iz] + random.nextDouble() * (FE[iz - 1] - FE[iz]) < Math.exp(-x)) {
+                return x;
+            }
+            bits = random.nextLong();
+            jz = bits & 0xFFFF_FFFFL;
+            iz = (int) (bits >>> 32) & 255;
+            if (jz < KE[iz]) {
+                return jz * WE[iz];
+            }
+        }
+    }
+
+    /**
+     * @return 范围在 (0, 1] 内的均匀随机数，保证对数有限。
+     */
+    static double uniform(RandomGenerator random) {
+        return 1.0 - random.nextDouble();
+    }
+}
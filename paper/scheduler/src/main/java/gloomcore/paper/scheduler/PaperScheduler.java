@@ -1,5 +1,6 @@
 package gloomcore.paper.scheduler;
 
+import gloomcore.math.random.RandomStreams;
 import io.papermc.paper.threadedregions.scheduler.*;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -11,6 +12,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 /**
  * Paper服务器线程调度器封装类
@@ -280,6 +282,17 @@ public enum PaperScheduler {
             return regionScheduler.runAtFixedRate(plugin, world, chunkX, chunkZ, task, toSafeTick(delay), toSafeTick(period));
         }
 
+        /**
+         * 获取该区块对应的确定性随机数流
+         * 同一世界、同一区块与同一根种子总是得到相同的序列，适合在区域线程任务中使用
+         *
+         * @param streams 随机数流提供器
+         * @return 该区块的随机数生成器
+         */
+        public @NotNull RandomGenerator.SplittableGenerator random(@NotNull RandomStreams streams) {
+            return streams.forChunk(world.getUID(), chunkX, chunkZ);
+        }
+
     }
 
 